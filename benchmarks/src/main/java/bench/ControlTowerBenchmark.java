@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simulator.QueueTypeEnum;
+import simulator.Simulator;
+import utils.RandomGenerator;
+import airport.ControlTower;
+import airport.ControlTowerFIFOArrivals;
+import airport.ControlTowerFuelArrivals;
+import airport.SamplingModeEnum;
+import airport.SimulationContext;
+
+/**
+ * Ticks per second of ControlTower.oneTick() for both kinds of tower. The tower is started again
+ * every simulated week, so an overloaded tower's queues don't grow for the whole benchmark.
+ * 
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControlTowerBenchmark {
+	@Param({"FIFO", "PRIORITY"})
+	public QueueTypeEnum queueType;
+
+	@Param({"LOW", "CRITICAL", "OVERLOADED"})
+	public LoadEnum load;
+
+	@Param({"EVERY_TICK", "SKIP_AHEAD"})
+	public SamplingModeEnum samplingMode;
+
+	private SimulationContext context;
+	private ControlTower tower;
+	private int ticksLeft;
+	private long seed;
+
+	@Setup
+	public void setUp() {
+		context = new SimulationContext(new RandomGenerator(0), load.getProbability(queueType))
+				.withSamplingMode(samplingMode);
+		seed = 0;
+		newTower();
+	}
+
+	private void newTower() {
+		SimulationContext runContext = context.withRandom(new RandomGenerator(seed++));
+		tower = (queueType == QueueTypeEnum.PRIORITY) ? new ControlTowerFuelArrivals(runContext) : new ControlTowerFIFOArrivals(runContext);
+		ticksLeft = Simulator.ticksInAWeek;
+	}
+
+	@Benchmark
+	public ControlTower oneTick() {
+		if(ticksLeft-- == 0) {
+			newTower();
+		}
+		tower.oneTick();
+		return tower;
+	}
+}
@@ -1,4 +1,4 @@
-package airport;
+package bench;
 
 import java.util.Comparator;
 
@@ -6,7 +6,7 @@ import aircraft.Aircraft;
 
 /**
  * Compares the amount of fuel within an aircraft. Aircraft with the least 
- * amount of fuel stay at the top.
+ * amount of fuel stay at the top. The order FuelBucketQueue gives, for QueueBenchmark to compare with.
  * 
  * @author Alex Luckett
  * @version 18/04/2014
@@ -0,0 +1,33 @@
+package bench;
+
+import simulator.QueueTypeEnum;
+
+/**
+ * Values of P to benchmark at, relative to the highest P each kind of tower copes with before aircraft start crashing
+ * 
+ * @version 17/10/2026
+ */
+public enum LoadEnum {
+	/** Queues stay short */
+	LOW(0.01, 0.01),
+	/** Around the highest P with no crashes (found with -AUTO) */
+	CRITICAL(0.087, 0.073),
+	/** Queues build up and aircraft crash */
+	OVERLOADED(0.2, 0.2);
+
+	private final double fifoProbability;
+	private final double priorityProbability;
+
+	private LoadEnum(double fifoProbability, double priorityProbability) {
+		this.fifoProbability = fifoProbability;
+		this.priorityProbability = priorityProbability;
+	}
+
+	/**
+	 * @param queueType Kind of tower
+	 * @return value of P for the tower
+	 */
+	public double getProbability(QueueTypeEnum queueType) {
+		return (queueType == QueueTypeEnum.PRIORITY) ? priorityProbability : fifoProbability;
+	}
+}
@@ -0,0 +1,102 @@
+package bench;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.RandomGenerator;
+import utils.TickClock;
+import aircraft.Aircraft;
+import airport.AircraftStore;
+import airport.FuelBucketQueue;
+import airport.FifoHandleQueue;
+import airport.HandleQueue;
+import airport.SimulationContext;
+
+/**
+ * Queue operations for a queue of a steady size: the aircraft at the head is taken off, the clock
+ * moves on and a new aircraft joins. Compares a PriorityQueue using FuelComparator and
+ * WaitingTimeComparator with the queue the control tower uses for that order (a FuelBucketQueue
+ * for fuel, FifoHandleQueue for waiting time).
+ * 
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+	@Param({"16", "1024"})
+	public int queueSize;
+
+	@Param({"FUEL", "WAITING_TIME"})
+	public String order;
+
+	private SimulationContext context;
+	private TickClock clock;
+	private PriorityQueue<Aircraft> queue;
+	private AircraftStore towerStore;
+	private HandleQueue towerQueue;
+
+	@Setup
+	public void setUp() {
+		boolean byFuel = order.equals("FUEL");
+		context = new SimulationContext(new RandomGenerator(1), 0);
+		clock = new TickClock();
+
+		Comparator<Aircraft> comparator = byFuel ? new FuelComparator() : new WaitingTimeComparator();
+		queue = new PriorityQueue<Aircraft>(11, comparator);
+		towerStore = new AircraftStore();
+		towerQueue = byFuel ? new FuelBucketQueue(towerStore) : new FifoHandleQueue(towerStore, false);
+
+		for(int i = 0; i < queueSize; i++) {
+			Aircraft queued = context.newCommercialAircraft();
+			queued.joinQueue(clock, true);
+			queue.add(queued);
+
+			Aircraft towerStored = context.newCommercialAircraft();
+			towerStored.joinQueue(clock, true);
+			towerQueue.add(towerStore.add(towerStored, clock));
+			clock.advance(1);
+		}
+	}
+
+	@Benchmark
+	public Aircraft comparatorHeap() {
+		Aircraft head = queue.poll();
+		head.leaveQueue();
+		clock.advance(1);
+
+		Aircraft joining = context.newCommercialAircraft();
+		joining.joinQueue(clock, true);
+		queue.add(joining);
+		return head;
+	}
+
+	@Benchmark
+	public int towerQueue() {
+		Aircraft head = towerStore.remove(towerQueue.poll());
+		head.leaveQueue();
+		clock.advance(1);
+
+		Aircraft joining = context.newCommercialAircraft();
+		joining.joinQueue(clock, true);
+		int handle = towerStore.add(joining, clock);
+		towerQueue.add(handle);
+		return handle;
+	}
+}
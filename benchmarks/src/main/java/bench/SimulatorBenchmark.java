@@ -0,0 +1,109 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import simulator.EngineTypeEnum;
+import simulator.QueueTypeEnum;
+import simulator.SearchModeEnum;
+import simulator.Simulator;
+import utils.RandomGenerator;
+import airport.SimulationContext;
+
+/**
+ * Whole runs through Simulator: simulate() for a day in ticks per second, and simulateAuto() sweeps
+ * in milliseconds per sweep. The statistics the simulator always prints are thrown away whilst measuring.
+ * 
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulatorBenchmark {
+	@Param({"FIFO", "PRIORITY"})
+	public QueueTypeEnum queueType;
+
+	@Param({"TICK", "EVENT"})
+	public EngineTypeEnum engineType;
+
+	private PrintStream console;
+
+	@Setup
+	public void hideOutput() {
+		console = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {}
+
+			@Override
+			public void write(byte[] b, int off, int len) {}
+		}));
+	}
+
+	@TearDown
+	public void showOutput() {
+		System.setOut(console);
+	}
+
+	private Simulator newSimulator(double probability) {
+		Simulator simulator = new Simulator(new SimulationContext(new RandomGenerator(42), 0));
+		simulator.setQueueType(queueType);
+		simulator.setEngineType(engineType);
+		simulator.setProbability(probability);
+		simulator.setNumTicks(Simulator.ticksInADay);
+		return simulator;
+	}
+
+	/**
+	 * One day at the critical value of P. Each call carries on the same random stream.
+	 */
+	@State(Scope.Thread)
+	public static class SimulateState {
+		Simulator simulator;
+
+		@Setup
+		public void setUp(SimulatorBenchmark benchmark) {
+			simulator = benchmark.newSimulator(LoadEnum.CRITICAL.getProbability(benchmark.queueType));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(Simulator.ticksInADay)
+	public int simulate(SimulateState state) {
+		return state.simulator.simulate();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public double simulateAutoLinear() {
+		return newSimulator(0).simulateAuto(2);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public double simulateAutoBisection() {
+		Simulator simulator = newSimulator(0);
+		simulator.setSearchMode(SearchModeEnum.BISECTION);
+		return simulator.simulateAuto(2);
+	}
+}
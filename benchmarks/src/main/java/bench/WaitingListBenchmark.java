@@ -0,0 +1,79 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.WaitingList;
+
+/**
+ * WaitingList as the repair yard uses it. Every tick some objects are added, the list moves on
+ * and the finished objects are taken out, so the number waiting stays steady. skipTicks() jumps
+ * a whole repair time at once instead.
+ * 
+ * @version 17/10/2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitingListBenchmark {
+	@Param({"0", "1", "8"})
+	public int addedPerTick;
+
+	@Param({"10", "100"})
+	public int timeToWait;
+
+	private WaitingList<Object> list;
+	private final Object item = new Object();
+
+	@Setup
+	public void setUp() {
+		list = new WaitingList<Object>(timeToWait);
+		for(int i = 0; i < timeToWait; i++) {
+			oneTick();
+		}
+	}
+
+	@Benchmark
+	public int oneTick() {
+		for(int i = 0; i < addedPerTick; i++) {
+			list.add(item);
+		}
+		list.oneTick();
+
+		int finished = 0;
+		if(list.hasFinished()) {
+			ArrayList<Object> done = list.poll();
+			finished = done.size();
+		}
+		return finished;
+	}
+
+	@Benchmark
+	public int skipTicks() {
+		for(int i = 0; i < addedPerTick; i++) {
+			list.add(item);
+		}
+		list.oneTick(timeToWait); // straight to when they finish, as the event engine does
+
+		int finished = 0;
+		if(list.hasFinished()) {
+			finished = list.poll().size();
+		}
+		return finished;
+	}
+}
@@ -0,0 +1,28 @@
+package bench;
+
+import java.util.Comparator;
+
+import aircraft.Aircraft;
+/**
+ * Compares the time an aircraft has been waiting. Aircraft with longer
+ * waiting times come out on top. The order FifoHandleQueue gives, for QueueBenchmark to compare with.
+ * 
+ * @author Alex Luckett
+ * @version 17/10/2026
+ */
+public class WaitingTimeComparator implements Comparator<Aircraft> {
+
+	@Override
+	public int compare(Aircraft aircraft1, Aircraft aircraft2) {
+		int wait1 = aircraft1.getWaitingTime();
+		int wait2 = aircraft2.getWaitingTime();
+
+		if(wait1 > wait2) {
+			return -1;
+		} else if (wait1 < wait2) {
+			return 1;
+		} else {
+			return 0;
+		}
+	}
+}
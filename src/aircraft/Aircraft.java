@@ -1,6 +1,12 @@
 package aircraft;
 
+import utils.TickClock;
+
 /**
+ * Whilst waiting in a queue, an aircraft keeps the tick it started waiting and the tick its fuel
+ * runs out on the queue's clock, rather than being updated every tick. Its waiting time and fuel
+ * are worked out from the clock when asked for.
+ * 
  * @author Alex Luckett & Shahbaz Hussain
  * @version 01/04/2014
  */
@@ -9,8 +15,13 @@ public abstract class Aircraft {
 	protected static final double breakdownProbability = 0.0001; // probability of breakdown for all aircraft. protected visibility allows for specific aircraft to have their own values. 
 	protected final int timeToTakeoff; // length of time to take off
 	protected final int timeToLand; // length of time to land
-	protected int timeLeftToFly; // time until aircraft runs out of fuel
-	protected int waitingTime; // waiting time (time it has been waiting to use runway)
+	protected int timeLeftToFly; // time until aircraft runs out of fuel, whilst not flying in a queue
+	protected int waitingTime; // waiting time (time it has been waiting to use runway), whilst not in a queue
+	
+	private TickClock clock; // clock of the queue the aircraft is waiting in. null if not in a queue
+	private boolean inTheAir; // whether fuel is being used up whilst in the queue
+	private int waitingSince; // tick the aircraft started waiting, on the queue's clock
+	private int fuelDeadline; // tick the aircraft runs out of fuel, on the queue's clock
 
 	public Aircraft(int timeToTakeoff, int timeToLand) {
 		waitingTime = 0;
@@ -24,6 +35,9 @@ public abstract class Aircraft {
 	 * @return waitingTime
 	 */
 	public int getWaitingTime(){
+		if(clock != null) {
+			return clock.getTick() - waitingSince;
+		}
 		return waitingTime; 
 	}
 	
@@ -31,16 +45,59 @@ public abstract class Aircraft {
 	 * Increase the waiting time of an aircraft by 1
 	 */
 	public void incrementWaitingTime() {
-		waitingTime++;
+		incrementWaitingTime(1);
+	}
+	
+	/**
+	 * Increase the waiting time of an aircraft by a number of ticks
+	 * @param ticks
+	 */
+	public void incrementWaitingTime(int ticks) {
+		if(clock != null) {
+			waitingSince -= ticks; // started waiting earlier
+		} else {
+			waitingTime += ticks;
+		}
 	}
 	
 	/**
 	 * Reset the aircraft's waiting time back to 0
 	 */
 	public void resetWaitingTime() {
+		if(clock != null) {
+			waitingSince = clock.getTick();
+		}
 		waitingTime = 0;
 	}
 	
+	/**
+	 * Starts waiting in a queue. From now on the waiting time goes up (and fuel down, if in the
+	 * air) as the queue's clock moves on, carrying on from their current values.
+	 * 
+	 * @param clock The queue's clock
+	 * @param inTheAir True if the aircraft uses up fuel whilst waiting
+	 */
+	public void joinQueue(TickClock clock, boolean inTheAir) {
+		leaveQueue();
+
+		this.clock = clock;
+		this.inTheAir = inTheAir;
+		waitingSince = clock.getTick() - waitingTime;
+		fuelDeadline = clock.getTick() + timeLeftToFly;
+	}
+	
+	/**
+	 * Stops waiting in a queue. The waiting time and fuel stay at the values they had when leaving.
+	 */
+	public void leaveQueue() {
+		if(clock != null) {
+			waitingTime = getWaitingTime();
+			timeLeftToFly = getFuel();
+			clock = null;
+			inTheAir = false;
+		}
+	}
+	
 	/**
 	 * Returns the time an aircraft takes to land (in ticks)
 	 * @return timeToLand
@@ -86,14 +143,40 @@ public abstract class Aircraft {
 	 * @param fuel Amount of fuel to assign the aircraft
 	 */
 	protected void setTimeLeftToFly(int fuel) {
+		if(inTheAir) {
+			fuelDeadline = clock.getTick() + fuel;
+		}
 		timeLeftToFly = fuel;
 	}
 	
+	/**
+	 * Returns the amount of fuel left, working it out from the clock if flying in a queue
+	 * @return fuel left
+	 */
+	protected int getFuel() {
+		if(inTheAir) {
+			return fuelDeadline - clock.getTick();
+		}
+		return timeLeftToFly;
+	}
+	
 	/**
 	 * Decrease fuel by 1 tick
 	 */
 	public void decrementFuel() {
-		timeLeftToFly--;
+		decrementFuel(1);
+	}
+	
+	/**
+	 * Decrease fuel by a number of ticks
+	 * @param ticks
+	 */
+	public void decrementFuel(int ticks) {
+		if(inTheAir) {
+			fuelDeadline -= ticks; // runs out earlier
+		} else {
+			timeLeftToFly -= ticks;
+		}
 	}
 	
 	/**
@@ -147,4 +147,30 @@ public class AircraftTest {
 		assertEquals(g1.getTimeLeftToFly(), 2147483647); // always should return the Max Value
 	}
 	
-}
\ No newline at end of file
+	/**
+	 * Tests that waiting time and fuel follow the queue's clock, and stop when leaving the queue
+	 */
+	@Test
+	public void testQueueClock() {
+		utils.TickClock clock = new utils.TickClock();
+		clock.advance(50); // joining part way through should make no difference
+		com1.setTimeLeftToFly(10);
+		com1.incrementWaitingTime();
+
+		com1.joinQueue(clock, true);
+		clock.advance(3);
+		assertEquals(com1.getWaitingTime(), 4);
+		assertEquals(com1.getTimeLeftToFly(), 7);
+
+		com1.leaveQueue();
+		clock.advance(3);
+		assertEquals(com1.getWaitingTime(), 4);
+		assertEquals(com1.getTimeLeftToFly(), 7);
+
+		com1.joinQueue(clock, false); // on the ground, so fuel stays the same
+		clock.advance(3);
+		assertEquals(com1.getWaitingTime(), 7);
+		assertEquals(com1.getTimeLeftToFly(), 7);
+	}
+	
+}
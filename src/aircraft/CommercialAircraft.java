@@ -1,31 +1,28 @@
 package aircraft;
 
+import utils.RandomGenerator;
+
 /** 
  * @author Alex Luckett & Shahbaz Hussain
  * @version 01/04/2014
  */
 public class CommercialAircraft extends EnginedAircraft {
-	private static double spawnProbability = 0; // since this can change, final not used here
-	
-	public CommercialAircraft(){
-		super(4, 6); // time to take off, time to land
-		setRandomFuel(40, 80); // sets fuel corresponding 20-40 mins (in ticks)
-	}
+	// no spawnProbability here - it is the value of P, so each ControlTower holds its own
 	
 	/**
-	 * set the spawnProbability out of 1 that an Aircraft will spawn.
-	 * @param p Amount of probability that the plane can spawn for
+	 * Creates a commercial aircraft, drawing its fuel from the shared generator
 	 */
-	public static void setProbability(double p) {
-		spawnProbability = p;
+	public CommercialAircraft(){
+		this(RandomGenerator.getShared());
 	}
 	
 	/**
-	 * Returns the spawnProbability out of 1 that an Aircraft will spawn.
-	 * @return spawnProbability
+	 * Creates a commercial aircraft, drawing its fuel from the given generator
+	 * @param random Generator owned by the simulation run
 	 */
-	public static double getSpawnProbability() {
-		return spawnProbability;
+	public CommercialAircraft(RandomGenerator random){
+		super(4, 6); // time to take off, time to land
+		setRandomFuel(random, 40, 80); // sets fuel corresponding 20-40 mins (in ticks)
 	}
 	
 	/**
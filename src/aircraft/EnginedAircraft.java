@@ -1,5 +1,7 @@
 package aircraft;
 
+import utils.RandomGenerator;
+
 /**
  * @author Alex Luckett & Shahbaz Hussain
  * @version 01/04/2014
@@ -12,11 +14,12 @@ public abstract class EnginedAircraft extends Aircraft {
 	
 	/**
 	 * Sets the amount of fuel between the minimum and maximum
+	 * @param random - generator to draw the amount of fuel from
 	 * @param minFuel - minimum amount of fuel
 	 * @param maxFuel - maximum amount of fuel
 	 */
-	protected void setRandomFuel(int minFuel, int maxFuel) {
-		timeLeftToFly = utils.RandomGenerator.getRandomIntRange(minFuel, maxFuel);
+	protected void setRandomFuel(RandomGenerator random, int minFuel, int maxFuel) {
+		setTimeLeftToFly(random.nextIntRange(minFuel, maxFuel));
 	}
 	
 	/**
@@ -25,6 +28,6 @@ public abstract class EnginedAircraft extends Aircraft {
 	 */
 	@Override
 	public int getTimeLeftToFly() {
-		return timeLeftToFly;
+		return getFuel();
 	}
 }
\ No newline at end of file
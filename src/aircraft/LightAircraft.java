@@ -1,5 +1,7 @@
 package aircraft;
 
+import utils.RandomGenerator;
+
 /**
  * @author Alex Luckett & Shahbaz Hussain
  * @version 01/04/2014
@@ -8,9 +10,22 @@ public class LightAircraft extends EnginedAircraft {
 	private static final double spawnProbability = 0.005;
 	private Glider attachedGlider; // if towing a glider
 	
+	/**
+	 * Creates a light aircraft, drawing its fuel from the shared generator
+	 * @param hasGlider true if towing a glider
+	 */
 	public LightAircraft(boolean hasGlider){
+		this(hasGlider, RandomGenerator.getShared());
+	}
+	
+	/**
+	 * Creates a light aircraft, drawing its fuel from the given generator
+	 * @param hasGlider true if towing a glider
+	 * @param random Generator owned by the simulation run
+	 */
+	public LightAircraft(boolean hasGlider, RandomGenerator random){
 		super(4, 6);
-		setRandomFuel(20, 40); // sets fuel corresponding 10-20 mins (in ticks)
+		setRandomFuel(random, 20, 40); // sets fuel corresponding 10-20 mins (in ticks)
 		
 		if(hasGlider) {
 			attachedGlider = new Glider();
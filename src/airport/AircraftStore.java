@@ -0,0 +1,182 @@
+package airport;
+
+import utils.TickClock;
+import aircraft.Aircraft;
+import aircraft.Glider;
+import aircraft.LightAircraft;
+
+/**
+ * Holds the aircraft waiting in a control tower's queues. Each aircraft is given an int handle, and the
+ * values the queues are ordered by (type, glider attached and tick its fuel runs out) are kept in
+ * arrays indexed by the handle. Comparing and checking aircraft then only reads from the arrays,
+ * rather than calling through each Aircraft object. Waiting times are only kept by the aircraft.
+ * 
+ * Handles are reused once an aircraft leaves, so the arrays only grow as far as the most aircraft
+ * waiting at once. The Aircraft objects are kept too, for when an aircraft leaves a queue.
+ * 
+ * @version 17/10/2026
+ */
+public class AircraftStore {
+	public static final byte GLIDER = 0;
+	public static final byte LIGHT = 1;
+	public static final byte COMMERCIAL = 2;
+
+	private Aircraft[] aircraft;
+	private byte[] type;
+	private boolean[] glider; // true if towing a glider
+	private int[] fuelDeadline; // tick the aircraft runs out of fuel, on its queue's clock. Integer.MAX_VALUE for gliders
+
+	private int[] freeHandles; // handles given up by aircraft which have left, to use again
+	private int freeCount;
+	private int used; // handles given out so far, including freed ones
+	private int size;
+
+	public AircraftStore() {
+		int capacity = 16;
+		aircraft = new Aircraft[capacity];
+		type = new byte[capacity];
+		glider = new boolean[capacity];
+		fuelDeadline = new int[capacity];
+		freeHandles = new int[capacity];
+		freeCount = 0;
+		used = 0;
+		size = 0;
+	}
+
+	/**
+	 * Stores an aircraft which is joining a queue
+	 * @param newAircraft The aircraft, which should already have joined the queue's clock
+	 * @param clock The queue's clock
+	 * @return handle for the aircraft
+	 */
+	public int add(Aircraft newAircraft, TickClock clock) {
+		int handle;
+		if(freeCount > 0) {
+			handle = freeHandles[--freeCount];
+		} else {
+			if(used == aircraft.length) {
+				grow();
+			}
+			handle = used++;
+		}
+
+		aircraft[handle] = newAircraft;
+		type[handle] = typeOf(newAircraft);
+		glider[handle] = (type[handle] == LIGHT) && ((LightAircraft) newAircraft).hasGlider();
+		if(type[handle] == GLIDER) {
+			fuelDeadline[handle] = Integer.MAX_VALUE; // can never run out
+		} else {
+			fuelDeadline[handle] = clock.getTick() + newAircraft.getTimeLeftToFly();
+		}
+
+		size++;
+		return handle;
+	}
+
+	/**
+	 * Gets the type of an aircraft
+	 * @param aircraft
+	 * @return GLIDER, LIGHT or COMMERCIAL
+	 */
+	public static byte typeOf(Aircraft aircraft) {
+		if(aircraft instanceof Glider) {
+			return GLIDER;
+		} else if(aircraft instanceof LightAircraft) {
+			return LIGHT;
+		}
+		return COMMERCIAL;
+	}
+
+	/**
+	 * Removes an aircraft which is leaving its queue. The handle may be given to another aircraft afterwards.
+	 * @param handle
+	 * @return the aircraft
+	 */
+	public Aircraft remove(int handle) {
+		Aircraft removed = aircraft[handle];
+		aircraft[handle] = null;
+		freeHandles[freeCount++] = handle;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Returns the aircraft with the given handle
+	 * @param handle
+	 * @return aircraft
+	 */
+	public Aircraft get(int handle) {
+		return aircraft[handle];
+	}
+
+	public byte getType(int handle) {
+		return type[handle];
+	}
+
+	/**
+	 * Returns true if the aircraft was towing a glider when it joined its queue
+	 * @param handle
+	 * @return whether towing a glider
+	 */
+	public boolean hasGlider(int handle) {
+		return glider[handle];
+	}
+
+	public int getFuelDeadline(int handle) {
+		return fuelDeadline[handle];
+	}
+
+	/**
+	 * Returns the number of aircraft stored
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Increase the waiting time of an aircraft by 1, keeping the object the same
+	 * @param handle
+	 */
+	public void incrementWaitingTime(int handle) {
+		aircraft[handle].incrementWaitingTime();
+	}
+
+	/**
+	 * Decrease the fuel of an aircraft by 1, keeping the object the same
+	 * @param handle
+	 */
+	public void decrementFuel(int handle) {
+		if(type[handle] != GLIDER) {
+			fuelDeadline[handle]--;
+		}
+		aircraft[handle].decrementFuel();
+	}
+
+	/**
+	 * Doubles the size of every array
+	 */
+	private void grow() {
+		int capacity = aircraft.length * 2;
+
+		Aircraft[] grownAircraft = new Aircraft[capacity];
+		System.arraycopy(aircraft, 0, grownAircraft, 0, used);
+		aircraft = grownAircraft;
+
+		byte[] grownType = new byte[capacity];
+		System.arraycopy(type, 0, grownType, 0, used);
+		type = grownType;
+
+		boolean[] grownGlider = new boolean[capacity];
+		System.arraycopy(glider, 0, grownGlider, 0, used);
+		glider = grownGlider;
+
+		int[] grownFuelDeadline = new int[capacity];
+		System.arraycopy(fuelDeadline, 0, grownFuelDeadline, 0, used);
+		fuelDeadline = grownFuelDeadline;
+
+		int[] grownFreeHandles = new int[capacity];
+		System.arraycopy(freeHandles, 0, grownFreeHandles, 0, freeCount);
+		freeHandles = grownFreeHandles;
+	}
+}
@@ -2,20 +2,35 @@ package airport;
 
 import java.text.DecimalFormat;
 
+import utils.StreamingHistogram;
+import aircraft.Aircraft;
+
 /**
  * Stores statistics for the simulation. Stores waiting time, number of departures,
  * number of arrivals, crashes, p value and queue type.
  * 
+ * Waiting times are also kept in a StreamingHistogram for each type of aircraft and each
+ * direction (landing or taking off), for percentiles, mean and variance.
+ * 
+ * Counters are 64 bit, so runs of a year or more can't overflow them. Statistics from several
+ * runs (seeds, or shards of one long run) can be combined with merge, in any grouping.
+ * 
  * @author Alex Luckett
  * @version 20/04/2014
  */
 public class ControlStats {
-	private int totalWaitingTime; // stored as number of steps
-	private int totalLandings; // when a plane SUCCESSFULLY lands, increment
-	private int totalDeparted; // number of aircraft that take off
-	private int totalCrashes; // every time a plane crashes (lack of fuel), increment
+	private long totalWaitingTime; // stored as number of steps
+	private long totalLandings; // when a plane SUCCESSFULLY lands, increment
+	private long totalDeparted; // number of aircraft that take off
+	private long totalCrashes; // every time a plane crashes (lack of fuel), increment
 	private final Double pValue; // the value of P used to create the statistics
 	private final String queueType; // queue type used to create the statistics
+	private final StreamingHistogram[] landingWaits; // waiting times of aircraft which landed, indexed by AircraftStore type
+	private final StreamingHistogram[] departureWaits; // waiting times of aircraft which took off, indexed by AircraftStore type
+	private StopReasonEnum stopReason = StopReasonEnum.COMPLETED; // why the run stopped
+	private long stopTick = -1; // tick the run stopped at, or -1 if not known
+
+	private static final String[] typeNames = {"Glider", "Light", "Commercial"}; // indexed by AircraftStore type
 	
 	public ControlStats (double pValue, String queueType) {
 		this.totalWaitingTime = 0;
@@ -25,28 +40,121 @@ public class ControlStats {
 		
 		this.pValue = pValue;
 		this.queueType = queueType;
+
+		landingWaits = new StreamingHistogram[typeNames.length];
+		departureWaits = new StreamingHistogram[typeNames.length];
+		for(int i = 0; i < typeNames.length; i++) {
+			landingWaits[i] = new StreamingHistogram();
+			departureWaits[i] = new StreamingHistogram();
+		}
 	}
 	
-	public int getTotalWaitingTime() {
+	public long getTotalWaitingTime() {
 		return totalWaitingTime;
 	}
 
-	public int getTotalLandings() {
+	public long getTotalLandings() {
 		return totalLandings;
 	}
 
-	public int getTotalDeparted() {
+	public long getTotalDeparted() {
 		return totalDeparted;
 	}
 
-	public int getTotalCrashes() {
+	public long getTotalCrashes() {
 		return totalCrashes;
 	}
 	
-	public void addWaitingTime(int timeToAdd) {
-		totalWaitingTime += timeToAdd;
+	/**
+	 * Adds the waiting time of an aircraft which has finished with the runway
+	 * @param aircraft
+	 * @param landed True if it landed, false if it took off
+	 */
+	public void addWaitingTime(Aircraft aircraft, boolean landed) {
+		int waitingTime = aircraft.getWaitingTime();
+		totalWaitingTime += waitingTime;
+		StreamingHistogram[] waits = landed ? landingWaits : departureWaits;
+		waits[AircraftStore.typeOf(aircraft)].record(waitingTime);
+	}
+
+	/**
+	 * Gets the waiting times of one type of aircraft in one direction
+	 * @param aircraftType AircraftStore.GLIDER, LIGHT or COMMERCIAL
+	 * @param landed True for aircraft which landed, false for those which took off
+	 * @return waiting times in ticks
+	 */
+	public StreamingHistogram getWaitingTimes(byte aircraftType, boolean landed) {
+		return landed ? landingWaits[aircraftType] : departureWaits[aircraftType];
+	}
+
+	/**
+	 * Gets the waiting times of every aircraft which has used the runway
+	 * @return waiting times in ticks, combined into a new histogram
+	 */
+	public StreamingHistogram getAllWaitingTimes() {
+		StreamingHistogram all = new StreamingHistogram();
+		for(int i = 0; i < typeNames.length; i++) {
+			all.merge(landingWaits[i]);
+			all.merge(departureWaits[i]);
+		}
+		return all;
 	}
 	
+	/**
+	 * Adds the counters and waiting times of another set of statistics to this one. Merging is
+	 * associative, so results can be combined in any grouping. The value of P and queue type of
+	 * this set are kept. The worst stop reason of the two is kept (DIVERGED, then CRASH_BUDGET,
+	 * then COMPLETED), along with the earliest known tick a run stopped at for that reason.
+	 * @param other Statistics to add, left unchanged
+	 * @return this, so merges can be chained
+	 */
+	public ControlStats merge(ControlStats other) {
+		totalWaitingTime += other.totalWaitingTime;
+		totalLandings += other.totalLandings;
+		totalDeparted += other.totalDeparted;
+		totalCrashes += other.totalCrashes;
+		for(int i = 0; i < typeNames.length; i++) {
+			landingWaits[i].merge(other.landingWaits[i]);
+			departureWaits[i].merge(other.departureWaits[i]);
+		}
+		if(other.stopReason.compareTo(stopReason) > 0) {
+			stopReason = other.stopReason;
+			stopTick = other.stopTick;
+		} else if(other.stopReason == stopReason && other.stopTick >= 0
+				&& (stopTick < 0 || other.stopTick < stopTick)) {
+			stopTick = other.stopTick;
+		}
+		return this;
+	}
+
+	/**
+	 * Records why and when the run these statistics are for stopped
+	 * @param stopReason
+	 * @param stopTick Number of ticks run
+	 */
+	public void setStop(StopReasonEnum stopReason, long stopTick) {
+		this.stopReason = stopReason;
+		this.stopTick = stopTick;
+	}
+
+	public StopReasonEnum getStopReason() {
+		return stopReason;
+	}
+
+	/**
+	 * @return the number of ticks run before stopping, or -1 if not known
+	 */
+	public long getStopTick() {
+		return stopTick;
+	}
+
+	/**
+	 * @return the value of P used to create the statistics
+	 */
+	public double getPValue() {
+		return pValue;
+	}
+
 	public void addCrash() {
 		totalCrashes++;
 	}
@@ -59,7 +167,7 @@ public class ControlStats {
 		totalDeparted++;
 	}
 	
-	public int getCrashes() {
+	public long getCrashes() {
 		return totalCrashes;
 	}
 	
@@ -86,6 +194,42 @@ public class ControlStats {
 		return (tickNumber/2) + " mins"; // to convert ticks to mins, times minutes value by 2
 	}
 	
+	/**
+	 * @return average waiting time in ticks of the aircraft which have used the runway, or 0 if none
+	 */
+	public double averageWaitingTime() {
+		long aircraftCount = totalLandings + totalDeparted;
+		return (aircraftCount == 0) ? 0 : (double) totalWaitingTime / aircraftCount;
+	}
+
+	/**
+	 * @return a line for each type and direction of aircraft which has used the runway, with its waiting times in ticks
+	 */
+	private String waitingTimesToString() {
+		StringBuilder lines = new StringBuilder();
+		for(int i = 0; i < typeNames.length; i++) {
+			if(landingWaits[i].getCount() > 0) {
+				lines.append("  ").append(typeNames[i]).append(" landings: ").append(landingWaits[i]).append("\n");
+			}
+			if(departureWaits[i].getCount() > 0) {
+				lines.append("  ").append(typeNames[i]).append(" departures: ").append(departureWaits[i]).append("\n");
+			}
+		}
+		return lines.toString();
+	}
+
+	/**
+	 * @return a line saying when and why the run stopped, if it stopped early
+	 */
+	private String stopToString() {
+		if(stopReason == StopReasonEnum.CRASH_BUDGET) {
+			return "Stopped early at tick " + stopTick + ": crash budget reached\n";
+		} else if(stopReason == StopReasonEnum.DIVERGED) {
+			return "Stopped early at tick " + stopTick + ": queues diverged\n";
+		}
+		return "";
+	}
+
 	public String toString() {
 		return 	"Commercial probability: " + getPasString() + "\n" +
 				"Queue type: " + queueType + "\n" + "\n" +
@@ -93,7 +237,9 @@ public class ControlStats {
 				"Total Landings: " + totalLandings + "\n" +
 				"Total Departures: " + totalDeparted + "\n" +
 				"Total Crashes: " + totalCrashes + "\n \n" +
-				"Average waiting time: " + convertTicksToMins((totalWaitingTime/(totalLandings + totalDeparted))) + "\n" + // calculates the waiting time in minutes, converts to minutes
+				"Average waiting time: " + convertTicksToMins(averageWaitingTime()) + "\n" + // calculates the waiting time in minutes, converts to minutes
+				"Waiting times (ticks):\n" + waitingTimesToString() +
+				stopToString() +
 				"==========" + "\n";
 	}
 	
@@ -107,6 +253,6 @@ public class ControlStats {
 				totalLandings + "," +
 				totalDeparted + "," +
 				totalCrashes + "," +
-				convertTicksToMins((totalWaitingTime/(totalLandings + totalDeparted)));
+				convertTicksToMins(averageWaitingTime());
 	}
 }
@@ -0,0 +1,94 @@
+package airport;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Adds up the statistics of many runs, which may finish on different threads (the seeds of a
+ * parallel sweep, or shards of one long run). Each thread merges its runs into a partial set of
+ * statistics of its own, so adding takes no lock and the memory used stays the same however many
+ * runs are added. The partials are merged, in the order their threads first added, when the totals
+ * are read, so the totals should be read once the runs adding to it have finished.
+ *
+ * @version 17/10/2026
+ */
+public class ControlStatsAccumulator {
+	private volatile Partials partials = new Partials(); // replaced as a whole by reset
+
+	/**
+	 * Adds the statistics of one run. Safe to call from any thread.
+	 * @param stats Statistics of a finished run, which mustn't change afterwards
+	 */
+	public void add(ControlStats stats) {
+		Partial partial = partials.local.get();
+		partial.stats.merge(stats);
+		partial.runs++;
+	}
+
+	/**
+	 * Throws away everything added so far, ready for another sweep. Shouldn't be called while runs are adding to it.
+	 */
+	public void reset() {
+		partials = new Partials();
+	}
+
+	public long getRuns() {
+		long runs = 0;
+		for(Partial partial : partials.all) {
+			runs += partial.runs;
+		}
+		return runs;
+	}
+
+	public long getTotalWaitingTime() {
+		return getStats(0, "").getTotalWaitingTime();
+	}
+
+	public long getTotalLandings() {
+		return getStats(0, "").getTotalLandings();
+	}
+
+	public long getTotalDeparted() {
+		return getStats(0, "").getTotalDeparted();
+	}
+
+	public long getTotalCrashes() {
+		return getStats(0, "").getTotalCrashes();
+	}
+
+	/**
+	 * Combines everything added so far into one set of statistics
+	 * @param pValue Value of P to label the result with
+	 * @param queueType Queue type to label the result with
+	 * @return a new ControlStats holding the merged counters and waiting times
+	 */
+	public ControlStats getStats(double pValue, String queueType) {
+		ControlStats result = new ControlStats(pValue, queueType);
+		for(Partial partial : partials.all) {
+			result.merge(partial.stats);
+		}
+		return result;
+	}
+
+	/**
+	 * Statistics added by one thread. Only that thread writes to it.
+	 */
+	private static class Partial {
+		private final ControlStats stats = new ControlStats(0, "");
+		private long runs = 0;
+	}
+
+	/**
+	 * The partials of every thread that has added since the last reset
+	 */
+	private static class Partials {
+		private final ConcurrentLinkedQueue<Partial> all = new ConcurrentLinkedQueue<Partial>();
+		private final ThreadLocal<Partial> local = new ThreadLocal<Partial>() {
+			@Override
+			protected Partial initialValue() {
+				Partial partial = new Partial();
+				all.add(partial);
+				return partial;
+			}
+		};
+	}
+}
@@ -1,10 +1,12 @@
 package airport;
 
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
-import java.util.PriorityQueue;
+import java.util.List;
 
+import utils.LogLevelEnum;
+import utils.LogSink;
+import utils.RandomGenerator;
+import utils.TickClock;
 import utils.WaitingList;
 import aircraft.*;
 
@@ -13,45 +15,94 @@ import aircraft.*;
  * Default behavior is a fifo system for the arrivals queue. Subclasses need to be made to implement
  * runway logic for different queue types.
  * 
- * In order to progress the simulation, oneTick() method must be called per tick.
+ * In order to progress the simulation, oneTick() method must be called per tick, or the tower
+ * handed to an EventEngine, which skips over ticks where nothing happens.
  * 
  * @author Alex Luckett
  * @version 29/04/2014
  */
 public abstract class ControlTower {
-	protected PriorityQueue<Aircraft> arrivals;
-	protected PriorityQueue<Aircraft> departures; // will use FIFO comparator, for consistency
-	private WaitingList<Aircraft> repairYard;
+	protected final AircraftStore store; // aircraft waiting in arrivals and departures
+	protected HandleQueue arrivals; // handles into the store
+	protected FifoHandleQueue departures; // first in, first out
+	WaitingList<Aircraft> repairYard; // package visible for the EventEngine
+
+	// aircraft work out their waiting time and fuel from these, so ageing a queue doesn't touch every aircraft
+	protected final TickClock arrivalsClock;
+	protected final TickClock departuresClock;
+	private FuelBucketQueue crashDeadlines; // engined arrivals, by tick they run out of fuel
+	private final BreakdownCheck breakdownCheck;
 
 	protected Aircraft runway;
+	protected boolean runwayLanding; // true if the aircraft on the runway is landing, false if taking off
 	protected int runwayBusyTime;
 
 	protected ControlStats stats;
 
+	protected final SimulationContext context; // random stream, probabilities and log for this run
+	final SimulationContext arrivalsContext; // arrivals spawn draws and fuel
+	final SimulationContext departuresContext; // departures spawn draws and fuel
+	final RandomGenerator breakdownRandom; // breakdown draws
+	final boolean skipSampling; // true if drawing the ticks until the next spawn, rather than drawing every tick
+	int ticksToNextArrival; // when skip sampling, ticks from now the next arrival spawns. Integer.MAX_VALUE for never
+	int ticksToNextDeparture;
+	private int trialsToNextBreakdown; // when skip sampling, breakdown checks (one per departure per tick) until the next breakdown
+	protected final LogSink log;
+
 	/**
-	 * Constructs a new Control Tower. Default logic is FIFO. 
+	 * Constructs a new Control Tower using the shared random generator. Default logic is FIFO. 
 	 * 
 	 * @param pValue Value of p (commercial aircraft probability)
 	 */
 	public ControlTower(double pValue) {
-		arrivals = new PriorityQueue<Aircraft>(1, getArrivalsComparator()); // order arrivals by waiting time (effectively FIFO)
-		departures = new PriorityQueue<Aircraft>(1, new WaitingTimeComparator()); // order departures by waiting time (effectively FIFO)
+		this(new SimulationContext(RandomGenerator.getShared(), pValue));
+	}
+
+	/**
+	 * Constructs a new Control Tower for the given run. Everything random, the spawn probabilities
+	 * and the debug output come from the context, so several towers can run at the same time.
+	 * 
+	 * @param context The run this tower belongs to
+	 */
+	public ControlTower(SimulationContext context) {
+		this.context = context;
+
+		// each source of random numbers gets its own stream, split from the run's stream. that way
+		// skipping the draws of one source (see EventEngine) can't change the numbers another one sees
+		RandomGenerator random = context.getRandom();
+		arrivalsContext = context.withRandom(random.split());
+		departuresContext = context.withRandom(random.split());
+		breakdownRandom = random.split();
+
+		skipSampling = (context.getSamplingMode() == SamplingModeEnum.SKIP_AHEAD);
+		if(skipSampling) {
+			ticksToNextArrival = arrivalsContext.getRandom().nextGeometric(getTotalSpawnProbability());
+			ticksToNextDeparture = departuresContext.getRandom().nextGeometric(getTotalSpawnProbability());
+			trialsToNextBreakdown = breakdownRandom.nextGeometric(Aircraft.getBreakdownProbability());
+		}
+
+		store = new AircraftStore();
+		arrivals = createArrivals();
+		departures = new FifoHandleQueue(store, false); // gliders being towed wait their turn like everything else
 		repairYard = new WaitingList<Aircraft>(120); // store aircraft for 120 ticks (1 hour)
+		arrivalsClock = new TickClock();
+		departuresClock = new TickClock();
+		log = context.getLog().forOwner(getClass(), arrivalsClock); // the arrivals clock has moved on once for every tick run
+		crashDeadlines = new FuelBucketQueue(store);
+		breakdownCheck = new BreakdownCheck();
 		
 		runway = null;
 		runwayBusyTime = 0;
 		
-		stats = new ControlStats(pValue, getSimulationType());
-		utils.Debug.println(getSimulationType() + " queue enabled");
-		
-		CommercialAircraft.setProbability(pValue);
+		stats = new ControlStats(context.getCommercialProbability(), getSimulationType());
+		log.log(LogLevelEnum.INFO, "%s queue enabled", getSimulationType());
 	}
 	
 	/**
-	 * Used to set the order the arrivals queue
-	 * @return Comparator<Aircraft> to order the arrivals queue
+	 * Used to create the arrivals queue, which sets the order aircraft are offered the runway in
+	 * @return an empty HandleQueue over the store
 	 */
-	public abstract Comparator<Aircraft> getArrivalsComparator();
+	protected abstract HandleQueue createArrivals();
 
 	/**
 	 * Runs one tick of each simulation component.
@@ -72,12 +123,12 @@ public abstract class ControlTower {
 	 * <b>Only really should be used for testing - not efficient to have multiple loops for different actions</b>
 	 */
 	public void increaseWaitingTime() {
-		for(Aircraft aircraft : arrivals) {
-			aircraft.incrementWaitingTime();
+		for(int i = 0; i < arrivals.size(); i++) {
+			store.incrementWaitingTime(arrivals.get(i));
 		}
 
-		for(Aircraft aircraft : departures) {
-			aircraft.incrementWaitingTime();
+		for(int i = 0; i < departures.size(); i++) {
+			store.incrementWaitingTime(departures.get(i));
 		}
 	}
 
@@ -88,11 +139,43 @@ public abstract class ControlTower {
 	 * <b>Only really should be used for testing - not efficient to have multiple loops for different actions.</b>
 	 */
 	public void decreaseFuel() {
-		for(Aircraft aircraft : arrivals) {
-			aircraft.decrementFuel();
+		for(int i = 0; i < arrivals.size(); i++) {
+			store.decrementFuel(arrivals.get(i)); // every deadline moves the same, so their order stays the same
+		}
+		crashDeadlines.deadlinesMoved(1);
+		if(arrivals instanceof FuelBucketQueue) {
+			((FuelBucketQueue) arrivals).deadlinesMoved(1);
 		}
 	}
 
+	/**
+	 * Runs a number of ticks in which nothing happens except time passing: no spawns, crashes,
+	 * breakdowns, repairs or runway changes. Used by the EventEngine to jump between events.
+	 * 
+	 * @param ticks Number of ticks to skip over
+	 */
+	void skipQuietTicks(int ticks) {
+		if(skipSampling) {
+			ticksToNextArrival = countDown(ticksToNextArrival, ticks);
+			ticksToNextDeparture = countDown(ticksToNextDeparture, ticks);
+			trialsToNextBreakdown = countDown(trialsToNextBreakdown, departures.size() * ticks); // departures can't change whilst quiet
+		}
+		ageArrivals(ticks);
+		ageDepartures(ticks);
+		repairYard.oneTick(ticks);
+		runwayBusyTime -= ticks;
+	}
+
+	/**
+	 * Takes a number of ticks (or checks) off a count until something happens, unless it never will
+	 * @param count Count to take ticks off
+	 * @param ticks Number of ticks passed
+	 * @return new count
+	 */
+	private static int countDown(int count, int ticks) {
+		return (count == Integer.MAX_VALUE) ? count : count - ticks;
+	}
+
 	/* ##########################################
 	   # RUNWAY HELPER METHODS              #
 	   ########################################## */
@@ -102,19 +185,19 @@ public abstract class ControlTower {
 	 * depending on which control type is being used for the arrivals queue.
 	 */
 	public void runwayOneTick() {
-		Aircraft currentArrival = arrivals.peek();
-		Aircraft currentDeparture = departures.peek();
+		Aircraft currentArrival = arrivals.isEmpty() ? null : store.get(arrivals.peek());
+		Aircraft currentDeparture = departures.isEmpty() ? null : store.get(departures.peek());
 		runwayBusyTime--;
 
 		// check if runway empty and not waiting, then collect stats
 		if(runwayBusyTime <= 0 && runway != null) {
-			stats.addWaitingTime(runway.getWaitingTime()); // if runway holds a plane, add it to the waiting time
+			stats.addWaitingTime(runway, runwayLanding); // if runway holds a plane, add it to the waiting time
 		}
 
 		if(runwayBusyTime <= 0) { // if the runway is no longer busy with an aircraft taking off
 			runwayLogic(currentArrival, currentDeparture);
 		} else {
-			utils.Debug.println("Runway busy for " + runwayBusyTime, true);
+			log.log(LogLevelEnum.TRACE, "Runway busy for %d", runwayBusyTime);
 		}
 	}
 	
@@ -134,22 +217,25 @@ public abstract class ControlTower {
 	 */
 	protected void fifoLogic(Aircraft currentArrival, Aircraft currentDeparture) {
 		if(currentArrival != null) {
-			runway = arrivals.poll(); // pull first in arrivals queue out
+			runway = pollArrival(); // pull first in arrivals queue out
+			runwayLanding = true;
 			runwayBusyTime = runway.getTimeToLand(); // make runway busy for the current aircraft's landing time
 			stats.addLanding(); // increment  number of arrivals statistic
-			utils.Debug.println("ARRIVAL: " + runway.toString(), true); 
+			log.log(LogLevelEnum.DEBUG, "ARRIVAL: %s", runway);
 		} else if (currentDeparture != null) {
-			runway = departures.poll(); // pull first in departures queue out
+			runway = pollDeparture(); // pull first in departures queue out
+			runwayLanding = false;
 			runwayBusyTime = runway.getTimeToTakeoff(); // make runway busy for the current aircraft's takeoff time
 			stats.addDeparture(); // increment number of departures statistic
-			utils.Debug.println("DEPARTURE: " + runway.toString(), true);
+			log.log(LogLevelEnum.DEBUG, "DEPARTURE: %s", runway);
 			
 			/*
-			 * If the current aircraft departing from the runway has a glider, ensure that the light aircraft lands again
+			 * If the current aircraft departing from the runway has a glider, ensure that the light aircraft lands again.
+			 * It joins arrivals still marked as towing, which puts it ahead of the queue in the FIFO tower
 			 */
 			if(runway instanceof LightAircraft) {
 				if(((LightAircraft)runway).hasGlider()) {
-					arrivals.add(runway);
+					addArrival(runway);
 				}
 			}
 			
@@ -170,42 +256,99 @@ public abstract class ControlTower {
 
 	public void departuresOneTick() {
 		generateDeparturesOneTick();
+		ageDepartures(1);
+	}
 
-		for(Aircraft aircraft : departures) {
-			aircraft.incrementWaitingTime();
-		}
+	/**
+	 * Increase the waiting time of everything in departures
+	 * @param ticks Number of ticks waited
+	 */
+	void ageDepartures(int ticks) {
+		departuresClock.advance(ticks);
+	}
+
+	/**
+	 * Adds an aircraft to the back of departures, starting its waiting time from the departures clock
+	 * @param aircraft
+	 */
+	protected void addDeparture(Aircraft aircraft) {
+		aircraft.joinQueue(departuresClock, false);
+		departures.add(store.add(aircraft, departuresClock));
+	}
+
+	/**
+	 * Removes the aircraft at the head of departures
+	 * @return the aircraft
+	 */
+	protected Aircraft pollDeparture() {
+		Aircraft aircraft = store.remove(departures.poll());
+		aircraft.leaveQueue();
+		return aircraft;
 	}
 
 	/**
 	 * Generates the departures for one tick. Checks probability of each aircraft spawning,
 	 * spawns them if the probability is hit. 
+	 * When skip sampling, only draws on the tick something spawns: which type it is, and how
+	 * many ticks until the next one.
 	 */
 	public void generateDeparturesOneTick() {
-		double spawnProb = utils.RandomGenerator.getRandomDouble();
+		if(!skipSampling) {
+			spawnDeparture(departuresContext.getRandom().nextDouble());
+			return;
+		}
+
+		ticksToNextDeparture = countDown(ticksToNextDeparture, 1);
+		if(ticksToNextDeparture == 0) {
+			RandomGenerator random = departuresContext.getRandom();
+			spawnDeparture(random.nextDouble() * getTotalSpawnProbability()); // something spawns, so only choose the type
+			ticksToNextDeparture = random.nextGeometric(getTotalSpawnProbability());
+		}
+	}
 
-		double gliderProb     = Glider.getSpawnProbability();
-		double lightProb      = gliderProb + LightAircraft.getSpawnProbability();
-		double commercialProb = lightProb + CommercialAircraft.getSpawnProbability();
+	/**
+	 * Spawns a departure, if the given draw is within the spawn probability of an aircraft type.
+	 * 
+	 * @param spawnProb Draw from the departures stream for this tick
+	 */
+	void spawnDeparture(double spawnProb) {
+		double gliderProb     = context.getGliderProbability();
+		double lightProb      = gliderProb + context.getLightProbability();
+		double commercialProb = lightProb + context.getCommercialProbability();
 
 		if(spawnProb <= gliderProb) {
-			departures.add(new LightAircraft(true)); // glider needs light aircraft to take off. spawn light aircraft with glider attached.
-			utils.Debug.println("New LightAircraft (with Glider) in departures", true);
+			addDeparture(departuresContext.newLightAircraft(true)); // glider needs light aircraft to take off. spawn light aircraft with glider attached.
+			log.log(LogLevelEnum.TRACE, "New LightAircraft (with Glider) in departures");
 		} else if (spawnProb <= lightProb) {
-			departures.add(new LightAircraft(false)); // light aircraft with no glider
-			utils.Debug.println("New LightAircraft in departures", true);
+			addDeparture(departuresContext.newLightAircraft(false)); // light aircraft with no glider
+			log.log(LogLevelEnum.TRACE, "New LightAircraft in departures");
 		} else if (spawnProb <= commercialProb) {
-			departures.add(new CommercialAircraft());
-			utils.Debug.println("New CommercialAircraft in departures", true);
+			addDeparture(departuresContext.newCommercialAircraft());
+			log.log(LogLevelEnum.TRACE, "New CommercialAircraft in departures");
 		}
 	}
 
 	/**
-	 * Returns the departures queue
+	 * Returns a copy of the departures queue
+	 * 
+	 * @return List<Aircraft> The departures queue, in the order they'll take off
+	 */
+	public List<Aircraft> getDepartures() {
+		return copyQueue(departures);
+	}
+
+	/**
+	 * Copies a queue of handles into a list of the aircraft themselves
 	 * 
-	 * @return LinkedList<Aircraft> The departures queue 
+	 * @param queue Queue to copy
+	 * @return List<Aircraft> holding the same aircraft, in the order they'll leave the queue
 	 */
-	public PriorityQueue<Aircraft> getDepartures() {
-		return departures;
+	private List<Aircraft> copyQueue(HandleQueue queue) {
+		List<Aircraft> copy = new ArrayList<Aircraft>(queue.size());
+		for(int i = 0; i < queue.size(); i++) {
+			copy.add(store.get(queue.get(i)));
+		}
+		return copy;
 	}
 
 
@@ -216,62 +359,130 @@ public abstract class ControlTower {
 
 	public void arrivalsOneTick() {
 		generateArrivalsOneTick();
+		ageArrivals(1);
+	}
+
+	/**
+	 * Increase the waiting time and use up the fuel of everything in arrivals
+	 * @param ticks Number of ticks waited
+	 */
+	void ageArrivals(int ticks) {
+		arrivalsClock.advance(ticks); // fuel only goes down whilst aircraft in use (in the air), so only on this clock
+	}
+
+	/**
+	 * Adds an aircraft to arrivals, starting its waiting time and fuel use from the arrivals clock
+	 * @param aircraft
+	 */
+	protected void addArrival(Aircraft aircraft) {
+		aircraft.joinQueue(arrivalsClock, true);
+		int handle = store.add(aircraft, arrivalsClock);
+		arrivals.add(handle);
+
+		// also record when it runs out of fuel, so checkCrash() can find it without looking through
+		// the whole queue. gliders can't run out, so are left out
+		if(store.getType(handle) != AircraftStore.GLIDER) {
+			crashDeadlines.add(handle);
+		}
+	}
 
-		for(Aircraft aircraft : arrivals) {
-			aircraft.incrementWaitingTime();
-			aircraft.decrementFuel(); // only need to decrease fuel whilst aircraft in use (in the air)
+	/**
+	 * Removes the aircraft at the head of arrivals
+	 * @return the aircraft
+	 */
+	protected Aircraft pollArrival() {
+		int handle = arrivals.poll();
+		crashDeadlines.remove(handle);
+		Aircraft aircraft = store.remove(handle);
+		aircraft.leaveQueue();
+		return aircraft;
+	}
+
+	/**
+	 * Returns the least fuel left by any aircraft in arrivals
+	 * @return least fuel left, or Integer.MAX_VALUE if nothing in arrivals can run out
+	 */
+	int leastFuelLeft() {
+		if(crashDeadlines.isEmpty()) {
+			return Integer.MAX_VALUE;
 		}
+		return store.getFuelDeadline(crashDeadlines.peek()) - arrivalsClock.getTick();
 	}
 
 	/**
 	 * Generates the arrivals for one tick. Checks probability of each aircraft spawning,
 	 * spawns them if the probability is hit. 
+	 * When skip sampling, only draws on the tick something spawns (see generateDeparturesOneTick()).
 	 */
 	public void generateArrivalsOneTick() {
-		double spawnProb = utils.RandomGenerator.getRandomDouble();
+		if(!skipSampling) {
+			spawnArrival(arrivalsContext.getRandom().nextDouble());
+			return;
+		}
+
+		ticksToNextArrival = countDown(ticksToNextArrival, 1);
+		if(ticksToNextArrival == 0) {
+			RandomGenerator random = arrivalsContext.getRandom();
+			spawnArrival(random.nextDouble() * getTotalSpawnProbability());
+			ticksToNextArrival = random.nextGeometric(getTotalSpawnProbability());
+		}
+	}
 
-		double gliderProb     = Glider.getSpawnProbability();
-		double lightProb      = gliderProb + LightAircraft.getSpawnProbability();
-		double commercialProb = lightProb + CommercialAircraft.getSpawnProbability();
+	/**
+	 * Spawns an arrival, if the given draw is within the spawn probability of an aircraft type.
+	 * 
+	 * @param spawnProb Draw from the arrivals stream for this tick
+	 */
+	void spawnArrival(double spawnProb) {
+		double gliderProb     = context.getGliderProbability();
+		double lightProb      = gliderProb + context.getLightProbability();
+		double commercialProb = lightProb + context.getCommercialProbability();
 
 		if(spawnProb <= gliderProb) {
-			arrivals.add(new Glider()); // gliders can arrive if in the air, so create it
-			utils.Debug.println("New Glider in arrivals", true);
+			addArrival(arrivalsContext.newGlider()); // gliders can arrive if in the air, so create it
+			log.log(LogLevelEnum.TRACE, "New Glider in arrivals");
 		} else if (spawnProb <= lightProb) {
-			arrivals.add(new LightAircraft(false)); // light aircraft with no glider
-			utils.Debug.println("New LightAircraft in arrivals", true);
+			addArrival(arrivalsContext.newLightAircraft(false)); // light aircraft with no glider
+			log.log(LogLevelEnum.TRACE, "New LightAircraft in arrivals");
 		} else if (spawnProb <= commercialProb) {
-			arrivals.add(new CommercialAircraft());
-			utils.Debug.println("New CommercialAircraft in arrivals", true);
+			addArrival(arrivalsContext.newCommercialAircraft());
+			log.log(LogLevelEnum.TRACE, "New CommercialAircraft in arrivals");
 		}
 	}
 
 	/**
-	 * Returns the arrivals queue
+	 * Returns the probability of any aircraft spawning in one tick (in either queue)
+	 * @return total spawn probability
+	 */
+	double getTotalSpawnProbability() {
+		return context.getGliderProbability() + context.getLightProbability() + context.getCommercialProbability();
+	}
+
+	/**
+	 * Returns a copy of the arrivals queue
 	 * 
-	 * @return PriorityQueue<Aircraft> The arrivals queue 
+	 * @return List<Aircraft> The arrivals queue, in the order they'll land
 	 */
-	public PriorityQueue<Aircraft> getArrivals() {
-		return arrivals;
+	public List<Aircraft> getArrivals() {
+		return copyQueue(arrivals);
 	}
 
 	/**
-	 * Iterates through the arrivals queue. Checks if a crash has happened,
-	 * records it in ControlStats. 
-	 * Logic done here using iterator, as can't loop through queue above
-	 * and remove at same time -> ConcurrentModificationException
+	 * Checks if a crash has happened in the arrivals queue, records it in ControlStats. 
+	 * Only looks at the aircraft whose fuel deadline has been reached, rather than the whole queue.
 	 */
-	private void checkCrash() {
-		Iterator<Aircraft> iter = arrivals.iterator();
-		while (iter.hasNext()) {
-			Aircraft currentAircraft = iter.next();
-			if(currentAircraft.getTimeLeftToFly() <= 0) {
-				utils.Debug.println("****************************************************************************************");
-				utils.Debug.println("* CRASH HAS OCCURED: " + currentAircraft.toString());
-				utils.Debug.println("****************************************************************************************");
-				stats.addCrash();			
-				iter.remove();
+	void checkCrash() {
+		while(leastFuelLeft() <= 0) {
+			int handle = crashDeadlines.poll();
+			arrivals.remove(handle); // knows where the aircraft is, so no need to search for it
+			Aircraft currentAircraft = store.remove(handle);
+			if(log.isEnabled(LogLevelEnum.INFO)) {
+				log.log(LogLevelEnum.INFO, "****************************************************************************************");
+				log.log(LogLevelEnum.INFO, "* CRASH HAS OCCURED: %s", currentAircraft);
+				log.log(LogLevelEnum.INFO, "****************************************************************************************");
 			}
+			stats.addCrash();
+			currentAircraft.leaveQueue();
 		}
 	}
 
@@ -286,17 +497,26 @@ public abstract class ControlTower {
 	 * for the specified wait time, then add them back into departures.
 	 */
 	public void repairYardOneTick() {
-		checkBreakdown();
+		repairYardOneTick(null);
+	}
+
+	/**
+	 * Runs the repair yard for one tick, using breakdown draws which have already been made.
+	 * 
+	 * @param breakdownDraws One draw per aircraft in departures, or null to draw them now
+	 */
+	void repairYardOneTick(double[] breakdownDraws) {
+		checkBreakdown(breakdownDraws);
 		repairYard.oneTick();
 
 		// if the simulation finishes, the aircraft still inside the repair yard won't be accounted for
 		// this is normal behaviour, as the coursework spec doesn't specify otherwise
-		if(repairYard.peek().size() != 0) {
+		if(repairYard.hasFinished()) {
 			ArrayList<Aircraft> repairedAircraft = repairYard.poll(); // DON'T FORGET THIS DELETES THE STUFF FROM REPAIR YARD!!! can't be accessed later
 			for(Aircraft currentAircraft : repairedAircraft) {
 				currentAircraft.resetWaitingTime(); // because broke down, don't want to inflate end statistics with anomalous results
-				departures.add(currentAircraft); // add the fixed aircraft to the back of the departures queue
-				utils.Debug.println("Aircraft repaired, added to back of departures", true);
+				addDeparture(currentAircraft); // add the fixed aircraft to the back of the departures queue
+				log.log(LogLevelEnum.DEBUG, "Aircraft repaired, added to back of departures");
 			}
 		}
 	}
@@ -304,17 +524,60 @@ public abstract class ControlTower {
 	/**
 	 * Iterates through the departures queue. If generated probability is
 	 * less than or equal to probability of breakdown then add into the repair yard
+	 * 
+	 * @param breakdownDraws One draw per aircraft in departures, or null to draw them now
+	 */
+	private void checkBreakdown(double[] breakdownDraws) {
+		if(skipSampling && trialsToNextBreakdown > departures.size()) {
+			trialsToNextBreakdown = countDown(trialsToNextBreakdown, departures.size()); // nothing breaks down this tick
+			return;
+		}
+
+		breakdownCheck.draws = breakdownDraws;
+		breakdownCheck.drawIndex = 0;
+		departures.removeMatching(breakdownCheck);
+	}
+
+	/**
+	 * Returns the number of ticks until the next breakdown, when skip sampling. Only valid
+	 * whilst departures doesn't change.
+	 * @return ticks until the next breakdown, or Integer.MAX_VALUE if there won't be one
+	 */
+	int ticksToNextBreakdown() {
+		if(departures.isEmpty() || trialsToNextBreakdown == Integer.MAX_VALUE) {
+			return Integer.MAX_VALUE;
+		}
+		return (trialsToNextBreakdown + departures.size() - 1) / departures.size(); // rounded up
+	}
+
+	/**
+	 * Takes one draw per aircraft in departures, moving the ones which break down into the repair yard.
+	 * When skip sampling, counts down the checks until the next breakdown instead.
 	 */
-	private void checkBreakdown() {
-		Iterator<Aircraft> iter = departures.iterator();
-		while (iter.hasNext()) {
-			double rand = utils.RandomGenerator.getRandomDouble();
+	private class BreakdownCheck implements HandleQueue.HandleFilter {
+		private double[] draws; // draws already made, or null to draw them now
+		private int drawIndex;
+
+		@Override
+		public boolean matches(int handle) {
+			boolean breakdown;
+			if(skipSampling) {
+				breakdown = (--trialsToNextBreakdown == 0);
+				if(breakdown) {
+					trialsToNextBreakdown = breakdownRandom.nextGeometric(Aircraft.getBreakdownProbability());
+				}
+			} else {
+				double rand = (draws != null) ? draws[drawIndex++] : breakdownRandom.nextDouble();
+				breakdown = (rand <= Aircraft.getBreakdownProbability());
+			}
 
-			Aircraft test = iter.next();
-			if(rand <= Aircraft.getBreakdownProbability()) {
+			if(breakdown) {
+				Aircraft test = store.remove(handle); // the queue doesn't look at the handle again once matched
+				test.leaveQueue();
 				repairYard.add(test);
-				iter.remove();
+				return true;
 			}
+			return false;
 		}
 	}
 
@@ -356,6 +619,18 @@ public abstract class ControlTower {
 		return stats;
 	}
 	
+	/**
+	 * Returns the probability of a commercial aircraft spawning (P) for this tower
+	 * @return P
+	 */
+	public double getCommercialProbability() {
+		return context.getCommercialProbability();
+	}
+
+	public SimulationContext getContext() {
+		return context;
+	}
+	
 	/**
 	 * Returns a String containing the type of simulation currently running.
 	 * EG: If currently using FIFO arrivals queue, return "FIFO"
@@ -1,7 +1,5 @@
 package airport;
 
-import java.util.Comparator;
-
 import aircraft.Aircraft;
 
 /**
@@ -23,14 +21,22 @@ public class ControlTowerFIFOArrivals extends ControlTower {
 		super(pValue);
 	}
 
+	/**
+	 * Constructs a new FIFO control tower for the given run.
+	 * @param context Random stream, probabilities and log for this run
+	 */
+	public ControlTowerFIFOArrivals(SimulationContext context) {
+		super(context);
+	}
+
 	@Override
 	protected void runwayLogic(Aircraft currentArrival,	Aircraft currentDeparture) {
 		fifoLogic(currentArrival, currentDeparture); // no special code to run here, so just revert back to standard fifo logic
 	}
 
 	@Override
-	public Comparator<Aircraft> getArrivalsComparator() {
-		return new WaitingTimeComparator(); // orders queue by waiting time (smallest first), effectively FIFO
+	protected HandleQueue createArrivals() {
+		return new FifoHandleQueue(store, true); // light aircraft back from a tow land first
 	}
 
 	@Override
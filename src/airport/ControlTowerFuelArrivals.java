@@ -1,7 +1,6 @@
 package airport;
 
-import java.util.Comparator;
-
+import utils.LogLevelEnum;
 import aircraft.Aircraft;
 
 /**
@@ -16,6 +15,14 @@ public class ControlTowerFuelArrivals extends ControlTower {
 		super(pValue);
 	}
 
+	/**
+	 * Constructs a new fuel priority control tower for the given run.
+	 * @param context Random stream, probabilities and log for this run
+	 */
+	public ControlTowerFuelArrivals(SimulationContext context) {
+		super(context);
+	}
+
 	@Override
 	protected void runwayLogic(Aircraft currentArrival, Aircraft currentDeparture) {
 		int arrivalWait = 0;
@@ -32,10 +39,11 @@ public class ControlTowerFuelArrivals extends ControlTower {
 			// if current departure has been waiting for longer than current arrival
 			//  then compare if aircraft can depart without causing next one to crash. if so, depart.
 			if(departureWait > arrivalWait && currentDeparture.getTimeToTakeoff() < arrivalFuelLeft) {
-				runway = departures.poll(); // pull most urgent aircraft from departures queue
+				runway = pollDeparture(); // pull most urgent aircraft from departures queue
+				runwayLanding = false;
 				runwayBusyTime = runway.getTimeToTakeoff(); // make the runway unusable for landing time of current aircraft
 				stats.addDeparture(); // increment statistics for number of departures
-				utils.Debug.println("DEPARTURE: " + runway.toString(), true);
+				log.log(LogLevelEnum.DEBUG, "DEPARTURE: %s", runway);
 				return; // aircraft has taken off, therefore done for this tick. exit out of method.
 			}
 		}
@@ -44,8 +52,8 @@ public class ControlTowerFuelArrivals extends ControlTower {
 	}
 
 	@Override
-	public Comparator<Aircraft> getArrivalsComparator() {
-		return new FuelComparator(); // orders queue by fuel remaining (smallest first)
+	protected HandleQueue createArrivals() {
+		return new FuelBucketQueue(store); // gliders in a lane of their own, behind everything which can run out
 	}
 
 	@Override
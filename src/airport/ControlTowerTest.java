@@ -4,11 +4,12 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.PriorityQueue;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import utils.RandomGenerator;
 import aircraft.*;
 
 /**
@@ -48,12 +49,12 @@ public class ControlTowerTest {
 
 		generatePlanes(testTower);
 
-		PriorityQueue<Aircraft> testArrivals = testTower.getArrivals();
-		PriorityQueue<Aircraft> testDepartures = testTower.getDepartures();
+		List<Aircraft> testArrivals = testTower.getArrivals();
+		List<Aircraft> testDepartures = testTower.getDepartures();
 
 		double aircraftNumber = (stepsToRun * Glider.getSpawnProbability()) + 
 				(stepsToRun * LightAircraft.getSpawnProbability()) +
-				(stepsToRun * CommercialAircraft.getSpawnProbability());
+				(stepsToRun * testTower.getCommercialProbability());
 		
 		int minAircraft = (int) aircraftNumber - ((int) aircraftNumber / 4);
 		// division by 4 is just a bit of leeway to take into account random nature of aircraft generation
@@ -67,6 +68,29 @@ public class ControlTowerTest {
 		assertTrue(minAircraft < testDepartures.size() && testDepartures.size() < maxAircraft);
 	}
 
+	/**
+	 * Ensures that skip sampling generates about the same number of planes as drawing every tick.
+	 */
+	@Test
+	public void testGeneratePlanesSkipSampling() {
+		utils.Debug.setEnabled(false);
+		SimulationContext context = new SimulationContext(new RandomGenerator(42), pValue).withSamplingMode(SamplingModeEnum.SKIP_AHEAD);
+		int runs = 20; // one run has too few planes to tell much from
+
+		int arrivals = 0;
+		int departures = 0;
+		for(int run = 0; run < runs; run++) {
+			ControlTower testTower = new ControlTowerFIFOArrivals(context);
+			generatePlanes(testTower);
+			arrivals += testTower.getArrivals().size();
+			departures += testTower.getDepartures().size();
+		}
+
+		double expected = runs * stepsToRun * (Glider.getSpawnProbability() + LightAircraft.getSpawnProbability() + pValue);
+		assertEquals(expected, arrivals, expected / 10); // within 10%, which is several standard deviations
+		assertEquals(expected, departures, expected / 10);
+	}
+
 	/**
 	 * Tests to ensure that when PriorityQueue is used, that the
 	 * aircraft are ordered by amount of fuel left. Lowest fuel first.
@@ -76,13 +100,13 @@ public class ControlTowerTest {
 	public void testArrivalOrderFuel() {
 		utils.Debug.setEnabled(false);
 		ControlTower testTower = new ControlTowerFuelArrivals(pValue);
-		PriorityQueue<Aircraft> testArrivals = testTower.getArrivals();
-
 		generatePlanes(testTower);
 
+		List<Aircraft> testArrivals = testTower.getArrivals(); // a copy in landing order, so take it after generating
+		assertFalse(testArrivals.isEmpty());
+
 		int lastFuel = 0;
-		while(testArrivals.peek() != null) {
-			Aircraft currentAircraft = testArrivals.poll();
+		for(Aircraft currentAircraft : testArrivals) {
 			/*
 			 * As queues are sorted by the amount of fuel, ensure that every entity has more fuel than the last
 			 */
@@ -100,22 +124,41 @@ public class ControlTowerTest {
 	public void testArrivalOrderFIFO() {
 		utils.Debug.setEnabled(false);
 		ControlTower testTower = new ControlTowerFIFOArrivals(pValue);
-		PriorityQueue<Aircraft> testArrivals = testTower.getArrivals();
-
-		generatePlanes(testTower);
+		for(int i = 0; i < stepsToRun; i++) {
+			testTower.arrivalsOneTick(); // spawns and ages, so waiting times differ
+		}
+		assertFalse(testTower.getArrivals().isEmpty());
 
-		int lastWait = 0;
+		int lastWait = Integer.MAX_VALUE;
 
-		while(testArrivals.peek() != null) {
-			Aircraft currentAircraft = testArrivals.poll();			
+		while(!testTower.arrivals.isEmpty()) {
+			Aircraft currentAircraft = testTower.pollArrival();
 			/*
-			 * As queues are sorted by the waiting time,ensure that every entity has a smaller waiting time than the last.
+			 * As queues are sorted by the waiting time, ensure that every entity has a waiting time no longer than the last.
 			 */
-			assertTrue(currentAircraft.getWaitingTime() >= lastWait);
+			assertTrue(currentAircraft.getWaitingTime() <= lastWait);
 			lastWait = currentAircraft.getWaitingTime();
 		}
 	}
 
+	/**
+	 * A light aircraft back from towing a glider should land before anything already waiting
+	 */
+	@Test
+	public void testTowReturnLandsFirst() {
+		utils.Debug.setEnabled(false);
+		ControlTower testTower = new ControlTowerFIFOArrivals(pValue);
+		for(int i = 0; i < 3; i++) {
+			testTower.addArrival(new CommercialAircraft());
+			testTower.arrivalsOneTick();
+		}
+		LightAircraft tow = new LightAircraft(true);
+		testTower.addArrival(tow);
+
+		assertSame(tow, testTower.getArrivals().get(0)); // the copy is in the order they'll land
+		assertSame(tow, testTower.pollArrival());
+	}
+
 	/**
 	 * Ensure that the waiting time for each aircraft in the arrivals and
 	 * departures queue increments over time.
@@ -205,4 +248,139 @@ public class ControlTowerTest {
 		assertTrue(beforeAircraft.length == (testTower.getDepartures().size() + testTower.peekRepairYardWaiting().size()));
 	}
 
+	/**
+	 * Once every engined aircraft in arrivals has run out of fuel, checkCrash() should
+	 * remove all of them and leave only the gliders.
+	 */
+	@Test
+	public void testCheckCrash() {
+		utils.Debug.setEnabled(false);
+		ControlTower testTower = new ControlTowerFuelArrivals(pValue);
+		generatePlanes(testTower);
+
+		int engined = 0;
+		for(Aircraft aircraft : testTower.getArrivals()) {
+			if(!(aircraft instanceof Glider)) {
+				engined++;
+			}
+		}
+
+		testTower.checkCrash();
+		assertEquals(0, testTower.getStats().getCrashes()); // nothing has used any fuel yet
+
+		for(int i = 0; i < 80; i++) { // most fuel an aircraft can have
+			testTower.decreaseFuel();
+		}
+		testTower.checkCrash();
+
+		assertEquals(engined, testTower.getStats().getCrashes());
+		for(Aircraft aircraft : testTower.getArrivals()) {
+			assertTrue(aircraft instanceof Glider);
+		}
+	}
+
+	/**
+	 * Towers with their own SimulationContext must not affect each other, even when run
+	 * tick by tick on the same thread.
+	 */
+	@Test
+	public void testIndependentContexts() {
+		utils.Debug.setEnabled(false);
+		ControlTower alone = new ControlTowerFuelArrivals(new SimulationContext(new RandomGenerator(1), pValue));
+		for(int i = 0; i < stepsToRun; i++) {
+			alone.oneTick();
+		}
+
+		ControlTower first = new ControlTowerFuelArrivals(new SimulationContext(new RandomGenerator(1), pValue));
+		ControlTower second = new ControlTowerFIFOArrivals(new SimulationContext(new RandomGenerator(2), 0.05));
+		for(int i = 0; i < stepsToRun; i++) {
+			first.oneTick();
+			second.oneTick();
+		}
+
+		assertEquals(alone.getStats().getTotalWaitingTime(), first.getStats().getTotalWaitingTime());
+		assertEquals(alone.getStats().getTotalLandings(), first.getStats().getTotalLandings());
+		assertEquals(alone.getStats().getTotalDeparted(), first.getStats().getTotalDeparted());
+		assertEquals(alone.getStats().getTotalCrashes(), first.getStats().getTotalCrashes());
+	}
+
+	/**
+	 * Runs a tower with its own random stream and returns its statistics
+	 * @param seed
+	 * @return ControlStats
+	 */
+	private ControlStats runStats(long seed) {
+		ControlTower tower = new ControlTowerFuelArrivals(new SimulationContext(new RandomGenerator(seed), pValue));
+		for(int i = 0; i < stepsToRun; i++) {
+			tower.oneTick();
+		}
+		return tower.getStats();
+	}
+
+	/**
+	 * Merging statistics adds up their counters and waiting times, and gives the same result in any grouping
+	 */
+	@Test
+	public void testStatsMerge() {
+		utils.Debug.setEnabled(false);
+		ControlStats left = runStats(1).merge(runStats(2)).merge(runStats(3));
+		ControlStats right = runStats(1).merge(runStats(2).merge(runStats(3)));
+
+		long landings = runStats(1).getTotalLandings() + runStats(2).getTotalLandings() + runStats(3).getTotalLandings();
+		assertEquals(landings, left.getTotalLandings());
+		assertEquals(left.getTotalLandings(), right.getTotalLandings());
+		assertEquals(left.getTotalDeparted(), right.getTotalDeparted());
+		assertEquals(left.getTotalWaitingTime(), right.getTotalWaitingTime());
+		assertEquals(left.getTotalWaitingTime(), left.getAllWaitingTimes().getMean() * left.getAllWaitingTimes().getCount(), 1e-6);
+		assertEquals(left.getAllWaitingTimes().getPercentile(0.9), right.getAllWaitingTimes().getPercentile(0.9));
+	}
+
+	/**
+	 * The accumulator merges as runs are added, giving the same as merging them directly, until reset
+	 */
+	@Test
+	public void testStatsAccumulator() {
+		utils.Debug.setEnabled(false);
+		ControlStatsAccumulator totals = new ControlStatsAccumulator();
+		totals.add(runStats(1));
+		totals.add(runStats(2));
+		ControlStats merged = runStats(1).merge(runStats(2));
+
+		ControlStats combined = totals.getStats(0, "");
+		assertEquals(2, totals.getRuns());
+		assertEquals(merged.getTotalLandings(), combined.getTotalLandings());
+		assertEquals(merged.getTotalWaitingTime(), combined.getTotalWaitingTime());
+		assertEquals(merged.getAllWaitingTimes().getCount(), combined.getAllWaitingTimes().getCount());
+
+		totals.reset();
+		assertEquals(0, totals.getRuns());
+		assertEquals(0, totals.getTotalLandings());
+		assertEquals(0, totals.getStats(0, "").getAllWaitingTimes().getCount());
+	}
+
+	/**
+	 * Merging keeps the worst stop reason, and the earliest tick a run stopped at for it
+	 */
+	@Test
+	public void testMergeStopReason() {
+		ControlStats completed = new ControlStats(0, "");
+		completed.setStop(StopReasonEnum.COMPLETED, 1000);
+		ControlStats lateCrash = new ControlStats(0, "");
+		lateCrash.setStop(StopReasonEnum.CRASH_BUDGET, 800);
+		ControlStats earlyCrash = new ControlStats(0, "");
+		earlyCrash.setStop(StopReasonEnum.CRASH_BUDGET, 300);
+
+		ControlStats merged = new ControlStats(0, "").merge(completed).merge(lateCrash).merge(earlyCrash);
+		assertEquals(StopReasonEnum.CRASH_BUDGET, merged.getStopReason());
+		assertEquals(300, merged.getStopTick());
+
+		merged = new ControlStats(0, "").merge(earlyCrash).merge(completed);
+		assertEquals(StopReasonEnum.CRASH_BUDGET, merged.getStopReason());
+		assertEquals(300, merged.getStopTick());
+
+		merged = new ControlStats(0, "").merge(completed);
+		assertEquals(StopReasonEnum.COMPLETED, merged.getStopReason());
+		assertEquals(1000, merged.getStopTick());
+	}
+
 }
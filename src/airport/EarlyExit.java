@@ -0,0 +1,57 @@
+package airport;
+
+/**
+ * Decides when a simulation can stop before running every tick. A search for the highest P with no
+ * crashes only needs to know whether a run crashed, so can stop at the first crash, or once a queue has
+ * grown so long that the run is bound to fail.
+ * 
+ * @version 17/10/2026
+ */
+public class EarlyExit {
+	/**
+	 * Never stops early
+	 */
+	public static final EarlyExit NEVER = new EarlyExit(0, 0);
+
+	private final int crashBudget; // stop once this many aircraft have crashed. 0 for no limit
+	private final int queueLimit; // stop once arrivals or departures hold more than this. 0 for no limit
+
+	/**
+	 * @param crashBudget Number of crashes to stop at (1 stops at the first), or 0 for no limit
+	 * @param queueLimit Most aircraft arrivals or departures may hold before the run counts as failed, or 0 for no limit
+	 */
+	public EarlyExit(int crashBudget, int queueLimit) {
+		this.crashBudget = crashBudget;
+		this.queueLimit = queueLimit;
+	}
+
+	public int getCrashBudget() {
+		return crashBudget;
+	}
+
+	public int getQueueLimit() {
+		return queueLimit;
+	}
+
+	/**
+	 * @return true if this can ever stop a run early
+	 */
+	public boolean isEnabled() {
+		return crashBudget > 0 || queueLimit > 0;
+	}
+
+	/**
+	 * Checks whether a tower's run can stop now
+	 * @param tower
+	 * @return why it can stop, or null if it should carry on
+	 */
+	public StopReasonEnum check(ControlTower tower) {
+		if(crashBudget > 0 && tower.getStats().getCrashes() >= crashBudget) {
+			return StopReasonEnum.CRASH_BUDGET;
+		}
+		if(queueLimit > 0 && (tower.arrivals.size() > queueLimit || tower.departures.size() > queueLimit)) {
+			return StopReasonEnum.DIVERGED;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,248 @@
+package airport;
+
+import aircraft.Aircraft;
+
+/**
+ * Runs a ControlTower from one event to the next, instead of tick by tick. Events are the next
+ * arrival/departure spawn, the runway becoming free, a repair finishing, an aircraft running out of
+ * fuel and a breakdown. Ticks in between are skipped over in one go, without running the queues or
+ * the runway.
+ * 
+ * How much that saves depends on the tower's sampling mode. When skip sampling, the tower already
+ * knows when the next spawn and breakdown are, so a long run costs time in proportion to the number
+ * of events, not the number of ticks. When drawing every tick (the default), the same draws still have
+ * to be taken to keep the results the same: one spawn draw per queue per tick, and one breakdown draw
+ * per departure per quiet tick. Only the work between the draws is saved.
+ * 
+ * Every tick with an event is run with the same code as ControlTower.oneTick(), and every random
+ * number is taken from the same stream in the same order, so the ControlStats at the end are
+ * exactly the same as running oneTick() the same number of times. Debug output only covers the
+ * ticks with events.
+ * 
+ * @version 17/10/2026
+ */
+public class EventEngine {
+	private static final long NONE = Long.MAX_VALUE; // no event of this kind scheduled
+
+	private final ControlTower tower;
+	private long currentTick; // number of ticks completed
+
+	private long arrivalsDrawnTo; // last tick whose arrivals spawn draw has been taken
+	private long nextArrivalTick; // tick of the next arrival spawn, found from the draws
+	private double nextArrivalDraw; // the draw which spawns it
+
+	private long departuresDrawnTo;
+	private long nextDepartureTick;
+	private double nextDepartureDraw;
+
+	private double[] breakdownDraws; // draws of the quiet tick in which a breakdown was found, reused
+
+	/**
+	 * Constructs an engine for a newly created control tower
+	 * @param tower The tower to run. Should not have had oneTick() called on it.
+	 */
+	public EventEngine(ControlTower tower) {
+		this.tower = tower;
+		currentTick = 0;
+		arrivalsDrawnTo = 0;
+		nextArrivalTick = NONE;
+		departuresDrawnTo = 0;
+		nextDepartureTick = NONE;
+		breakdownDraws = new double[16];
+	}
+
+	/**
+	 * Runs the tower until the given number of ticks have been completed.
+	 * Can be called again with a later tick to carry on.
+	 * 
+	 * @param endTick Tick to stop after
+	 */
+	public void runUntil(long endTick) {
+		runUntil(endTick, EarlyExit.NEVER);
+	}
+
+	/**
+	 * Runs the tower until the given number of ticks have been completed, or until it can stop early.
+	 * Crashes and queue changes only happen on ticks with events, so the check is made after each of those,
+	 * and getCurrentTick() is then the exact tick the run stopped at.
+	 * 
+	 * @param endTick Tick to stop after
+	 * @param earlyExit When to stop early
+	 * @return why it stopped early, or null if it ran to endTick
+	 */
+	public StopReasonEnum runUntil(long endTick, EarlyExit earlyExit) {
+		boolean checking = earlyExit.isEnabled();
+		while(currentTick < endTick) {
+			scheduleSpawns(endTick);
+
+			long eventTick = Math.min(endTick, nextEventTick());
+			long breakdownTick = findBreakdown(eventTick);
+			boolean quietBreakdown = (breakdownTick != NONE);
+			if(quietBreakdown) {
+				eventTick = breakdownTick;
+			}
+
+			tower.skipQuietTicks((int) (eventTick - currentTick - 1));
+			runTick(eventTick, quietBreakdown ? breakdownDraws : null);
+			currentTick = eventTick;
+
+			if(checking) {
+				StopReasonEnum reason = earlyExit.check(tower);
+				if(reason != null) {
+					return reason;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of ticks completed so far
+	 * @return currentTick
+	 */
+	public long getCurrentTick() {
+		return currentTick;
+	}
+
+	/**
+	 * Runs one tick with an event in it, in the same order as ControlTower.oneTick().
+	 * 
+	 * @param tick The tick being run
+	 * @param breakdownDraws Breakdown draws already taken for this tick, or null to draw them now
+	 */
+	private void runTick(long tick, double[] breakdownDraws) {
+		tower.checkCrash();
+
+		if(tower.skipSampling) {
+			tower.generateArrivalsOneTick(); // counts down to the spawn itself
+		} else if(tick == nextArrivalTick) {
+			tower.spawnArrival(nextArrivalDraw);
+			nextArrivalTick = NONE;
+		}
+		tower.ageArrivals(1);
+
+		if(tower.skipSampling) {
+			tower.generateDeparturesOneTick();
+		} else if(tick == nextDepartureTick) {
+			tower.spawnDeparture(nextDepartureDraw);
+			nextDepartureTick = NONE;
+		}
+		tower.ageDepartures(1);
+
+		tower.repairYardOneTick(breakdownDraws);
+		tower.runwayOneTick();
+	}
+
+	/**
+	 * Takes spawn draws, one per tick as oneTick() would, until the next spawn of each queue is found
+	 * (or endTick is reached). A spawn's fuel is drawn when it is created, before the next spawn is
+	 * looked for, so the draws come out in the same order as they would tick by tick.
+	 * 
+	 * When the tower is skip sampling, it already knows when the next spawns are, so nothing is drawn here.
+	 * 
+	 * @param endTick Last tick to look at
+	 */
+	private void scheduleSpawns(long endTick) {
+		if(tower.skipSampling) {
+			nextArrivalTick = spawnTick(tower.ticksToNextArrival);
+			nextDepartureTick = spawnTick(tower.ticksToNextDeparture);
+			return;
+		}
+
+		double spawnProbability = tower.getTotalSpawnProbability();
+
+		while(nextArrivalTick == NONE && arrivalsDrawnTo < endTick) {
+			double draw = tower.arrivalsContext.getRandom().nextDouble();
+			arrivalsDrawnTo++;
+			if(draw <= spawnProbability) {
+				nextArrivalTick = arrivalsDrawnTo;
+				nextArrivalDraw = draw;
+			}
+		}
+
+		while(nextDepartureTick == NONE && departuresDrawnTo < endTick) {
+			double draw = tower.departuresContext.getRandom().nextDouble();
+			departuresDrawnTo++;
+			if(draw <= spawnProbability) {
+				nextDepartureTick = departuresDrawnTo;
+				nextDepartureDraw = draw;
+			}
+		}
+	}
+
+	/**
+	 * Converts the tower's count of ticks until a spawn into the tick it happens on
+	 * @param ticksToSpawn
+	 * @return tick of the spawn, or NONE
+	 */
+	private long spawnTick(int ticksToSpawn) {
+		return (ticksToSpawn == Integer.MAX_VALUE) ? NONE : currentTick + ticksToSpawn;
+	}
+
+	/**
+	 * Finds the tick of the next event, other than a breakdown
+	 * @return tick of the next event
+	 */
+	private long nextEventTick() {
+		long eventTick = Math.min(nextArrivalTick, nextDepartureTick);
+
+		// crashes are checked at the start of the tick after fuel reaches 0
+		int leastFuel = tower.leastFuelLeft();
+		if(leastFuel != Integer.MAX_VALUE) {
+			eventTick = Math.min(eventTick, currentTick + 1 + Math.max(0, leastFuel));
+		}
+
+		if(tower.runway != null) {
+			eventTick = Math.min(eventTick, currentTick + Math.max(1, tower.runwayBusyTime));
+		} else if(!tower.arrivals.isEmpty() || !tower.departures.isEmpty()) {
+			eventTick = currentTick + 1; // runway free with aircraft waiting
+		}
+
+		if(tower.skipSampling) {
+			int ticksToBreakdown = tower.ticksToNextBreakdown(); // otherwise found by findBreakdown()
+			if(ticksToBreakdown != Integer.MAX_VALUE) {
+				eventTick = Math.min(eventTick, currentTick + ticksToBreakdown);
+			}
+		}
+
+		int ticksToRepair = tower.repairYard.ticksUntilNextFinished();
+		if(ticksToRepair != Integer.MAX_VALUE) {
+			eventTick = Math.min(eventTick, currentTick + Math.max(1, ticksToRepair));
+		}
+
+		return eventTick;
+	}
+
+	/**
+	 * Takes the breakdown draws of the quiet ticks before eventTick, one per aircraft in departures
+	 * per tick as oneTick() would. Departures can't change during quiet ticks, so the number of draws
+	 * per tick stays the same.
+	 * When the tower is skip sampling, it knows when the next breakdown is, so nothing is drawn here.
+	 * 
+	 * @param eventTick Tick of the next event
+	 * @return the first quiet tick with a breakdown (its draws left in breakdownDraws), or NONE
+	 */
+	private long findBreakdown(long eventTick) {
+		int departures = tower.departures.size();
+		if(departures == 0 || tower.skipSampling) {
+			return NONE;
+		}
+		if(breakdownDraws.length < departures) {
+			breakdownDraws = new double[Math.max(departures, breakdownDraws.length * 2)];
+		}
+
+		double breakdownProbability = Aircraft.getBreakdownProbability();
+		for(long tick = currentTick + 1; tick < eventTick; tick++) {
+			boolean breakdown = false;
+			for(int i = 0; i < departures; i++) {
+				breakdownDraws[i] = tower.breakdownRandom.nextDouble();
+				breakdown |= (breakdownDraws[i] <= breakdownProbability);
+			}
+			if(breakdown) {
+				return tick;
+			}
+		}
+
+		return NONE;
+	}
+}
@@ -0,0 +1,114 @@
+package airport;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import utils.RandomGenerator;
+
+/**
+ * Test for the EventEngine. It should give exactly the same statistics as ticking the tower.
+ */
+public class EventEngineTest {
+	private int stepsToRun = 2880 * 3; // 3 days
+	private long[] seeds = { 1, 42, 7 };
+	private double[] pValues = { 0.005, 0.02, 0.1, 0.3 }; // no crashes up to lots of crashes
+
+	/**
+	 * Creates a tower with its own random stream
+	 */
+	private ControlTower createTower(boolean fuelPriority, long seed, double p) {
+		return createTower(fuelPriority, seed, p, SamplingModeEnum.EVERY_TICK);
+	}
+
+	private ControlTower createTower(boolean fuelPriority, long seed, double p, SamplingModeEnum samplingMode) {
+		utils.Debug.setEnabled(false);
+		SimulationContext context = new SimulationContext(new RandomGenerator(seed), p).withSamplingMode(samplingMode);
+		return fuelPriority ? new ControlTowerFuelArrivals(context) : new ControlTowerFIFOArrivals(context);
+	}
+
+	private void assertSameStats(ControlStats expected, ControlStats actual) {
+		assertEquals(expected.getTotalWaitingTime(), actual.getTotalWaitingTime());
+		assertEquals(expected.getTotalLandings(), actual.getTotalLandings());
+		assertEquals(expected.getTotalDeparted(), actual.getTotalDeparted());
+		assertEquals(expected.getTotalCrashes(), actual.getTotalCrashes());
+	}
+
+	/**
+	 * Runs every seed and P on both towers, in both sampling modes, ticking one copy and running the other with the engine.
+	 */
+	@Test
+	public void testSameStatsAsTicking() {
+		for(SamplingModeEnum samplingMode : SamplingModeEnum.values()) {
+			assertSameStatsAsTicking(samplingMode);
+		}
+	}
+
+	private void assertSameStatsAsTicking(SamplingModeEnum samplingMode) {
+		for(boolean fuelPriority : new boolean[] { false, true }) {
+			for(long seed : seeds) {
+				for(double p : pValues) {
+					ControlTower ticked = createTower(fuelPriority, seed, p, samplingMode);
+					for(int i = 0; i < stepsToRun; i++) {
+						ticked.oneTick();
+					}
+
+					ControlTower evented = createTower(fuelPriority, seed, p, samplingMode);
+					new EventEngine(evented).runUntil(stepsToRun);
+
+					assertSameStats(ticked.getStats(), evented.getStats());
+					assertEquals(ticked.getArrivals().size(), evented.getArrivals().size());
+					assertEquals(ticked.getDepartures().size(), evented.getDepartures().size());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Running the engine in small chunks should give the same result as one long run
+	 */
+	@Test
+	public void testRunInChunks() {
+		ControlTower whole = createTower(true, 42, 0.05);
+		new EventEngine(whole).runUntil(stepsToRun);
+
+		ControlTower chunked = createTower(true, 42, 0.05);
+		EventEngine engine = new EventEngine(chunked);
+		for(int tick = 7; tick < stepsToRun; tick += 7) {
+			engine.runUntil(tick);
+			assertEquals(tick, engine.getCurrentTick());
+		}
+		engine.runUntil(stepsToRun);
+
+		assertSameStats(whole.getStats(), chunked.getStats());
+	}
+
+	/**
+	 * The engine should stop early on the same tick as ticking the tower and checking after every tick
+	 */
+	@Test
+	public void testEarlyExitSameTick() {
+		EarlyExit[] exits = { new EarlyExit(1, 0), new EarlyExit(5, 0), new EarlyExit(0, 20) };
+		for(EarlyExit earlyExit : exits) {
+			for(boolean fuelPriority : new boolean[] { false, true }) {
+				ControlTower ticked = createTower(fuelPriority, 42, 0.3);
+				StopReasonEnum tickedReason = null;
+				int tickedStop = 0;
+				while(tickedReason == null && tickedStop < stepsToRun) {
+					ticked.oneTick();
+					tickedStop++;
+					tickedReason = earlyExit.check(ticked);
+				}
+
+				ControlTower evented = createTower(fuelPriority, 42, 0.3);
+				EventEngine engine = new EventEngine(evented);
+				StopReasonEnum eventedReason = engine.runUntil(stepsToRun, earlyExit);
+
+				assertNotNull(tickedReason);
+				assertEquals(tickedReason, eventedReason);
+				assertEquals(tickedStop, engine.getCurrentTick());
+				assertSameStats(ticked.getStats(), evented.getStats());
+			}
+		}
+	}
+}
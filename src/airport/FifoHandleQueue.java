@@ -0,0 +1,236 @@
+package airport;
+
+/**
+ * A first in, first out queue of aircraft handles (see AircraftStore). Every aircraft in a queue waits
+ * on the same clock, so the one which has waited longest is simply the one which joined first.
+ *
+ * Each handle is given the next number in a sequence as it joins, and is kept in a ring at the slot for
+ * that number, like an ArrayDeque. Adding and taking the head are O(1). An aircraft leaving from the
+ * middle of the queue (crashing or breaking down) leaves a gap behind, which is skipped once the head
+ * reaches it, so removing any handle is O(1) too.
+ *
+ * A queue can also have a lane for light aircraft coming back to land after towing a glider, which
+ * go ahead of everything else, in the order they joined.
+ *
+ * @version 17/10/2026
+ */
+public class FifoHandleQueue implements HandleQueue {
+	private static final byte NOT_QUEUED = 0;
+	private static final byte IN_TOWS = 1;
+	private static final byte IN_OTHERS = 2;
+
+	private final AircraftStore store;
+	private final boolean towLane; // true if aircraft towing a glider when they join go ahead of the rest
+	private final Lane tows; // light aircraft back from towing a glider
+	private final Lane others; // everything else
+
+	private byte[] place; // NOT_QUEUED, IN_TOWS or IN_OTHERS, indexed by handle
+	private long[] sequence; // number each handle was given as it joined its lane
+
+	private int[] order; // every handle, in the order they'll leave. only worked out for get()
+	private boolean orderValid;
+
+	/**
+	 * Constructs an empty queue
+	 * @param store Store holding the aircraft of each handle
+	 * @param towLane True to let light aircraft towing a glider when they join go ahead of the rest
+	 */
+	public FifoHandleQueue(AircraftStore store, boolean towLane) {
+		this.store = store;
+		this.towLane = towLane;
+		tows = new Lane();
+		others = new Lane();
+		place = new byte[16];
+		sequence = new long[16];
+		order = new int[16];
+		orderValid = false;
+	}
+
+	/**
+	 * Adds a handle to the back of its lane
+	 * @param handle
+	 */
+	@Override
+	public void add(int handle) {
+		if(handle >= place.length) {
+			int length = Math.max(handle + 1, place.length * 2);
+			byte[] grownPlace = new byte[length];
+			System.arraycopy(place, 0, grownPlace, 0, place.length);
+			place = grownPlace;
+			long[] grownSequence = new long[length];
+			System.arraycopy(sequence, 0, grownSequence, 0, sequence.length);
+			sequence = grownSequence;
+		}
+
+		if(towLane && store.hasGlider(handle)) {
+			sequence[handle] = tows.add(handle);
+			place[handle] = IN_TOWS;
+		} else {
+			sequence[handle] = others.add(handle);
+			place[handle] = IN_OTHERS;
+		}
+		orderValid = false;
+	}
+
+	@Override
+	public int peek() {
+		int handle = tows.peek();
+		return (handle != NONE) ? handle : others.peek();
+	}
+
+	@Override
+	public int poll() {
+		int handle = peek();
+		if(handle != NONE) {
+			remove(handle);
+		}
+		return handle;
+	}
+
+	@Override
+	public boolean remove(int handle) {
+		if(!contains(handle)) {
+			return false;
+		}
+
+		Lane lane = (place[handle] == IN_TOWS) ? tows : others;
+		lane.clear(sequence[handle]);
+		place[handle] = NOT_QUEUED;
+		orderValid = false;
+		return true;
+	}
+
+	@Override
+	public boolean contains(int handle) {
+		return handle >= 0 && handle < place.length && place[handle] != NOT_QUEUED;
+	}
+
+	@Override
+	public int size() {
+		return tows.size + others.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns the handle at an index of the queue, in the order they'll leave. Works the
+	 * order out again after the queue changes, so going through every index is O(n).
+	 * @param index
+	 * @return handle
+	 */
+	@Override
+	public int get(int index) {
+		if(!orderValid) {
+			if(order.length < size()) {
+				order = new int[Math.max(size(), order.length * 2)];
+			}
+			int count = tows.copyTo(order, 0);
+			others.copyTo(order, count);
+			orderValid = true;
+		}
+		return order[index];
+	}
+
+	/**
+	 * Visits every handle in the order they'll leave, removing the ones the filter matches as it goes
+	 * @param filter Decides which handles to remove
+	 */
+	public void removeMatching(HandleFilter filter) {
+		removeMatching(tows, filter);
+		removeMatching(others, filter);
+	}
+
+	private void removeMatching(Lane lane, HandleFilter filter) {
+		for(long number = lane.head; number < lane.tail; number++) {
+			int handle = lane.ring[(int) number & lane.mask];
+			if(handle != NONE && filter.matches(handle)) {
+				lane.clear(number);
+				place[handle] = NOT_QUEUED;
+				orderValid = false;
+			}
+		}
+	}
+
+	/**
+	 * Handles in the order they joined, in a ring indexed by their sequence number. Gaps left by
+	 * handles removed from the middle hold NONE.
+	 */
+	private static class Lane {
+		private int[] ring = emptyRing(16);
+		private int mask = ring.length - 1;
+		private long head = 0; // sequence number of the first slot still in use
+		private long tail = 0; // sequence number the next handle will be given
+		private int size = 0; // handles in the lane, not counting gaps
+
+		/**
+		 * Adds a handle at the back
+		 * @param handle
+		 * @return sequence number given to the handle
+		 */
+		long add(int handle) {
+			if(tail - head == ring.length) {
+				int[] grown = emptyRing(ring.length * 2);
+				int grownMask = grown.length - 1;
+				for(long number = head; number < tail; number++) {
+					grown[(int) number & grownMask] = ring[(int) number & mask];
+				}
+				ring = grown;
+				mask = grownMask;
+			}
+
+			ring[(int) tail & mask] = handle;
+			size++;
+			return tail++;
+		}
+
+		/**
+		 * Returns the handle at the front, skipping over any gaps
+		 * @return handle, or NONE if empty
+		 */
+		int peek() {
+			while(head < tail && ring[(int) head & mask] == NONE) {
+				head++;
+			}
+			return (head < tail) ? ring[(int) head & mask] : NONE;
+		}
+
+		/**
+		 * Takes out the handle with a sequence number, leaving a gap
+		 * @param number
+		 */
+		void clear(long number) {
+			ring[(int) number & mask] = NONE;
+			size--;
+			if(size == 0) { // nothing left to skip over, so start the ring again from here
+				head = tail;
+			}
+		}
+
+		/**
+		 * Copies the handles in order into an array
+		 * @param array
+		 * @param start Index to copy the first handle to
+		 * @return index after the last handle copied
+		 */
+		int copyTo(int[] array, int start) {
+			for(long number = head; number < tail; number++) {
+				int handle = ring[(int) number & mask];
+				if(handle != NONE) {
+					array[start++] = handle;
+				}
+			}
+			return start;
+		}
+
+		private static int[] emptyRing(int length) {
+			int[] ring = new int[length];
+			for(int i = 0; i < length; i++) {
+				ring[i] = NONE;
+			}
+			return ring;
+		}
+	}
+}
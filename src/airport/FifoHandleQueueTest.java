@@ -0,0 +1,98 @@
+package airport;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.RandomGenerator;
+import utils.TickClock;
+import aircraft.Aircraft;
+
+/**
+ * Tests that FifoHandleQueue gives handles back in the order they joined, including when
+ * handles are removed from the middle, and that light aircraft back from a tow go first.
+ */
+public class FifoHandleQueueTest {
+	private SimulationContext context = new SimulationContext(new RandomGenerator(1), 0);
+	private TickClock clock = new TickClock();
+	private AircraftStore store = new AircraftStore();
+
+	private int addAircraft(FifoHandleQueue queue, boolean towing) {
+		Aircraft aircraft = towing ? context.newLightAircraft(true) : context.newCommercialAircraft();
+		aircraft.joinQueue(clock, true);
+		int handle = store.add(aircraft, clock);
+		queue.add(handle);
+		return handle;
+	}
+
+	@Test
+	public void testFirstInFirstOut() {
+		Random random = new Random(42);
+		FifoHandleQueue queue = new FifoHandleQueue(store, true);
+		ArrayList<Integer> tows = new ArrayList<Integer>(); // handles in the order they joined, by lane
+		ArrayList<Integer> others = new ArrayList<Integer>();
+
+		for(int step = 0; step < 5000; step++) {
+			int action = random.nextInt(10);
+			if(action < 5) {
+				boolean towing = random.nextInt(5) == 0;
+				(towing ? tows : others).add(addAircraft(queue, towing));
+			} else if(action < 7) {
+				Integer expected = !tows.isEmpty() ? tows.remove(0) : !others.isEmpty() ? others.remove(0) : HandleQueue.NONE;
+				assertEquals((int) expected, queue.poll());
+				if(expected != HandleQueue.NONE) {
+					store.remove(expected);
+				}
+			} else if(action < 8 && !queue.isEmpty()) {
+				int handle = queue.get(random.nextInt(queue.size()));
+				assertTrue(queue.remove(handle));
+				assertFalse(queue.contains(handle));
+				tows.remove((Integer) handle);
+				others.remove((Integer) handle);
+				store.remove(handle);
+			} else {
+				// remove about a third, visiting in the order they'll leave
+				final Random draws = new Random(random.nextInt());
+				final ArrayList<Integer> removed = new ArrayList<Integer>();
+				queue.removeMatching(new HandleQueue.HandleFilter() {
+					@Override
+					public boolean matches(int handle) {
+						if(draws.nextInt(3) == 0) {
+							removed.add(handle);
+							return true;
+						}
+						return false;
+					}
+				});
+				for(Integer handle : removed) {
+					tows.remove(handle);
+					others.remove(handle);
+					store.remove(handle);
+				}
+			}
+
+			assertEquals(tows.size() + others.size(), queue.size());
+			for(int i = 0; i < queue.size(); i++) {
+				int expected = (i < tows.size()) ? tows.get(i) : others.get(i - tows.size());
+				assertEquals(expected, queue.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Without a tow lane, aircraft towing a glider wait their turn
+	 */
+	@Test
+	public void testNoTowLane() {
+		FifoHandleQueue queue = new FifoHandleQueue(store, false);
+		int first = addAircraft(queue, false);
+		int towing = addAircraft(queue, true);
+
+		assertEquals(first, queue.poll());
+		assertEquals(towing, queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+}
@@ -0,0 +1,293 @@
+package airport;
+
+/**
+ * A queue of aircraft handles ordered by the tick each aircraft runs out of fuel (see AircraftStore),
+ * soonest first. Aircraft which run out on the same tick leave in the order they joined.
+ *
+ * Engined aircraft only carry between 20 and 80 ticks of fuel, so the deadlines in the queue all fall
+ * within a short window. Each tick of the window has its own bucket (a calendar queue), with the aircraft
+ * in it linked through arrays indexed by handle. Adding, removing and finding the most urgent aircraft
+ * then never compare two aircraft, and take O(1) time (amortised over the ticks the head moves past).
+ * The window doubles if the deadlines ever spread out further than it.
+ *
+ * Gliders can't run out of fuel, so they wait in a lane of their own, behind every engined aircraft.
+ *
+ * Keys and deadlines are compared as plain ints. They are at most a run's length plus an aircraft's
+ * fuel, so can't wrap as a run never lasts more than TickClock.MAX_TICKS.
+ *
+ * @version 17/10/2026
+ */
+public class FuelBucketQueue implements HandleQueue {
+	private static final byte NOT_QUEUED = 0;
+	private static final byte IN_BUCKET = 1;
+	private static final byte IN_LANE = 2;
+
+	private final AircraftStore store;
+	private int[] heads; // first handle in each bucket, NONE if empty. a key goes in bucket key & mask
+	private int[] tails; // last handle in each bucket
+	private int mask;
+	private int lowest; // key of the first bucket holding an aircraft, whilst any engined aircraft are queued
+	private int highest; // no engined aircraft has a key above this
+	private int bucketed; // number of engined aircraft queued
+	private int shift; // added to a deadline to give its key. goes up when every deadline moves earlier together
+
+	private int laneHead; // gliders, in the order they joined
+	private int laneTail;
+	private int laneSize;
+
+	private byte[] place; // NOT_QUEUED, IN_BUCKET or IN_LANE, indexed by handle
+	private int[] keys; // key each handle was filed under
+	private int[] next; // next handle in the same bucket or lane
+	private int[] previous;
+
+	private int[] order; // every handle, in the order they'll leave. only worked out for get()
+	private boolean orderValid;
+
+	/**
+	 * Constructs an empty queue
+	 * @param store Store holding the fuel deadline of each handle
+	 */
+	public FuelBucketQueue(AircraftStore store) {
+		this.store = store;
+		heads = emptyBuckets(128); // comfortably more than the most fuel an aircraft can have
+		tails = emptyBuckets(heads.length);
+		mask = heads.length - 1;
+		bucketed = 0;
+		shift = 0;
+
+		laneHead = NONE;
+		laneTail = NONE;
+		laneSize = 0;
+
+		place = new byte[16];
+		keys = new int[16];
+		next = new int[16];
+		previous = new int[16];
+		order = new int[16];
+		orderValid = false;
+	}
+
+	/**
+	 * Adds a handle to the back of the bucket for its fuel deadline, or to the glider lane if it can't run out
+	 * @param handle
+	 */
+	@Override
+	public void add(int handle) {
+		if(handle >= place.length) {
+			growHandles(Math.max(handle + 1, place.length * 2));
+		}
+
+		int deadline = store.getFuelDeadline(handle);
+		if(deadline == Integer.MAX_VALUE) {
+			previous[handle] = laneTail;
+			next[handle] = NONE;
+			if(laneTail == NONE) {
+				laneHead = handle;
+			} else {
+				next[laneTail] = handle;
+			}
+			laneTail = handle;
+			laneSize++;
+			place[handle] = IN_LANE;
+		} else {
+			int key = deadline + shift;
+			if(bucketed == 0) {
+				lowest = key;
+				highest = key;
+			} else {
+				int newLowest = Math.min(lowest, key);
+				int newHighest = Math.max(highest, key);
+				if(newHighest - newLowest >= heads.length) {
+					growBuckets(newHighest - newLowest + 1);
+				}
+				lowest = newLowest;
+				highest = newHighest;
+			}
+
+			keys[handle] = key;
+			append(handle, key & mask);
+			bucketed++;
+			place[handle] = IN_BUCKET;
+		}
+		orderValid = false;
+	}
+
+	@Override
+	public int peek() {
+		if(bucketed > 0) {
+			return heads[lowest & mask];
+		}
+		return laneHead;
+	}
+
+	@Override
+	public int poll() {
+		int handle = peek();
+		if(handle != NONE) {
+			remove(handle);
+		}
+		return handle;
+	}
+
+	@Override
+	public boolean remove(int handle) {
+		if(!contains(handle)) {
+			return false;
+		}
+
+		int before = previous[handle];
+		int after = next[handle];
+		if(place[handle] == IN_LANE) {
+			if(before == NONE) {
+				laneHead = after;
+			} else {
+				next[before] = after;
+			}
+			if(after == NONE) {
+				laneTail = before;
+			} else {
+				previous[after] = before;
+			}
+			laneSize--;
+		} else {
+			int bucket = keys[handle] & mask;
+			if(before == NONE) {
+				heads[bucket] = after;
+			} else {
+				next[before] = after;
+			}
+			if(after == NONE) {
+				tails[bucket] = before;
+			} else {
+				previous[after] = before;
+			}
+
+			bucketed--;
+			if(bucketed > 0) {
+				while(heads[lowest & mask] == NONE) { // move the head on to the next bucket in use
+					lowest++;
+				}
+			}
+		}
+
+		place[handle] = NOT_QUEUED;
+		orderValid = false;
+		return true;
+	}
+
+	@Override
+	public boolean contains(int handle) {
+		return handle >= 0 && handle < place.length && place[handle] != NOT_QUEUED;
+	}
+
+	@Override
+	public int size() {
+		return bucketed + laneSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns the handle at an index of the queue, in the order they'll leave. Works the
+	 * order out again after the queue changes, so going through every index is O(n).
+	 * @param index
+	 * @return handle
+	 */
+	@Override
+	public int get(int index) {
+		if(!orderValid) {
+			if(order.length < size()) {
+				order = new int[Math.max(size(), order.length * 2)];
+			}
+			int count = 0;
+			for(int key = lowest; bucketed > 0 && key <= highest; key++) {
+				for(int handle = heads[key & mask]; handle != NONE; handle = next[handle]) {
+					order[count++] = handle;
+				}
+			}
+			for(int handle = laneHead; handle != NONE; handle = next[handle]) {
+				order[count++] = handle;
+			}
+			orderValid = true;
+		}
+		return order[index];
+	}
+
+	/**
+	 * Tells the queue that the fuel deadline of every engined aircraft in it has moved the same number of
+	 * ticks earlier, so their order is unchanged and they can stay in the buckets they're in.
+	 * @param ticks Number of ticks each deadline has moved
+	 */
+	public void deadlinesMoved(int ticks) {
+		shift += ticks;
+	}
+
+	/**
+	 * Adds a handle to the back of a bucket
+	 * @param handle
+	 * @param bucket
+	 */
+	private void append(int handle, int bucket) {
+		int tail = tails[bucket];
+		previous[handle] = tail;
+		next[handle] = NONE;
+		if(tail == NONE) {
+			heads[bucket] = handle;
+		} else {
+			next[tail] = handle;
+		}
+		tails[bucket] = handle;
+	}
+
+	/**
+	 * Makes the window of buckets big enough to cover a span of keys, keeping the order within each bucket
+	 * @param span Number of keys the window must cover
+	 */
+	private void growBuckets(int span) {
+		int length = heads.length;
+		while(length < span) {
+			length *= 2;
+		}
+
+		int[] oldHeads = heads;
+		int oldMask = mask;
+		heads = emptyBuckets(length);
+		tails = emptyBuckets(length);
+		mask = length - 1;
+
+		for(int key = lowest; key <= highest; key++) {
+			int handle = oldHeads[key & oldMask];
+			while(handle != NONE) {
+				int following = next[handle];
+				append(handle, key & mask);
+				handle = following;
+			}
+		}
+	}
+
+	private void growHandles(int length) {
+		byte[] grownPlace = new byte[length];
+		System.arraycopy(place, 0, grownPlace, 0, place.length);
+		place = grownPlace;
+		keys = grow(keys, length);
+		next = grow(next, length);
+		previous = grow(previous, length);
+	}
+
+	private static int[] emptyBuckets(int length) {
+		int[] buckets = new int[length];
+		for(int i = 0; i < length; i++) {
+			buckets[i] = NONE;
+		}
+		return buckets;
+	}
+
+	private static int[] grow(int[] array, int length) {
+		int[] grown = new int[length];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+}
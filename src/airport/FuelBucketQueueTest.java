@@ -0,0 +1,105 @@
+package airport;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.RandomGenerator;
+import utils.TickClock;
+import aircraft.Aircraft;
+
+/**
+ * Tests that FuelBucketQueue always gives the aircraft which runs out of fuel soonest, taking
+ * the one which joined first when two run out on the same tick, and gliders last.
+ */
+public class FuelBucketQueueTest {
+	private SimulationContext context = new SimulationContext(new RandomGenerator(1), 0);
+	private TickClock clock = new TickClock();
+	private AircraftStore store = new AircraftStore();
+
+	/**
+	 * Adds a random type of aircraft to the store and queue
+	 */
+	private int addAircraft(Random random, FuelBucketQueue queue, ArrayList<Integer> joined) {
+		int type = random.nextInt(3);
+		Aircraft aircraft = (type == 0) ? context.newGlider()
+				: (type == 1) ? context.newLightAircraft(false) : context.newCommercialAircraft();
+		aircraft.joinQueue(clock, true);
+		int handle = store.add(aircraft, clock);
+		queue.add(handle);
+		joined.add(handle);
+		return handle;
+	}
+
+	/**
+	 * The first handle to have joined of those with the earliest fuel deadline
+	 */
+	private int expectedHead(ArrayList<Integer> joined) {
+		int head = HandleQueue.NONE;
+		for(int handle : joined) {
+			if(head == HandleQueue.NONE || store.getFuelDeadline(handle) < store.getFuelDeadline(head)) {
+				head = handle;
+			}
+		}
+		return head;
+	}
+
+	@Test
+	public void testMostUrgentFirst() {
+		Random random = new Random(42);
+		FuelBucketQueue queue = new FuelBucketQueue(store);
+		ArrayList<Integer> joined = new ArrayList<Integer>(); // handles in the order they joined
+
+		for(int step = 0; step < 5000; step++) {
+			int action = random.nextInt(10);
+			if(action < 5) {
+				addAircraft(random, queue, joined);
+			} else if(action < 7) {
+				int expected = expectedHead(joined);
+				assertEquals(expected, queue.poll());
+				if(expected != HandleQueue.NONE) {
+					joined.remove((Integer) expected);
+					store.remove(expected);
+				}
+			} else if(action < 8 && !joined.isEmpty()) {
+				int handle = queue.get(random.nextInt(queue.size()));
+				assertTrue(queue.remove(handle));
+				assertFalse(queue.contains(handle));
+				joined.remove((Integer) handle);
+				store.remove(handle);
+			} else {
+				clock.advance(random.nextInt(3)); // deadlines stay where they are, so spread out from new ones
+			}
+
+			assertEquals(joined.size(), queue.size());
+			assertEquals(expectedHead(joined), queue.peek());
+		}
+	}
+
+	/**
+	 * Going through every index visits each handle once, in the order they'd be polled
+	 */
+	@Test
+	public void testGetInPollOrder() {
+		Random random = new Random(7);
+		FuelBucketQueue queue = new FuelBucketQueue(store);
+		ArrayList<Integer> joined = new ArrayList<Integer>();
+		for(int i = 0; i < 200; i++) {
+			addAircraft(random, queue, joined);
+			clock.advance(random.nextInt(4)); // spreads the deadlines wider than the starting window
+		}
+
+		int[] visited = new int[queue.size()];
+		for(int i = 0; i < visited.length; i++) {
+			visited[i] = queue.get(i);
+		}
+		for(int handle : visited) {
+			assertEquals(handle, queue.poll());
+		}
+		assertTrue(queue.isEmpty());
+		assertEquals(HandleQueue.NONE, queue.poll());
+	}
+}
@@ -0,0 +1,61 @@
+package airport;
+
+/**
+ * A queue of aircraft handles (see AircraftStore). The order handles come out in is decided by
+ * each kind of queue.
+ *
+ * @version 17/10/2026
+ */
+public interface HandleQueue {
+	public static final int NONE = -1; // returned when there is no handle
+
+	/**
+	 * Adds a handle to the queue
+	 * @param handle
+	 */
+	public void add(int handle);
+
+	/**
+	 * Returns the handle at the head of the queue, without removing it
+	 * @return handle, or NONE if empty
+	 */
+	public int peek();
+
+	/**
+	 * Removes the handle at the head of the queue
+	 * @return handle, or NONE if empty
+	 */
+	public int poll();
+
+	/**
+	 * Removes a handle from anywhere in the queue
+	 * @param handle
+	 * @return true if the handle was in the queue
+	 */
+	public boolean remove(int handle);
+
+	/**
+	 * Returns true if the handle is in the queue
+	 * @param handle
+	 * @return whether in the queue
+	 */
+	public boolean contains(int handle);
+
+	public int size();
+
+	public boolean isEmpty();
+
+	/**
+	 * Returns the handle at an index of the queue. Going from 0 to size() - 1 visits every handle once.
+	 * @param index
+	 * @return handle
+	 */
+	public int get(int index);
+
+	/**
+	 * Decides which handles a queue's removeMatching() removes
+	 */
+	public interface HandleFilter {
+		public boolean matches(int handle);
+	}
+}
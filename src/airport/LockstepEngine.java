@@ -0,0 +1,121 @@
+package airport;
+
+import java.util.ArrayList;
+
+import utils.CommonRandomNumbers;
+import utils.RandomGenerator;
+
+/**
+ * Runs several control towers (lanes) through the same ticks together, each with its own value of P.
+ * Every lane takes its random numbers from one CommonRandomNumbers, so on each tick they all see the
+ * same spawn, fuel and breakdown draws, and P only changes which spawn draws bring a commercial aircraft.
+ *
+ * The differences between lanes then come from P rather than from luck, so they vary far less than
+ * runs with streams of their own, and a whole block of P values is run from one set of draws. A lane's
+ * results don't depend on which other lanes run beside it.
+ *
+ * Lanes are ticked one at a time, in the same way as ControlTower.oneTick(), on one thread.
+ *
+ * @version 17/10/2026
+ */
+public class LockstepEngine {
+	private final CommonRandomNumbers draws;
+	private final ArrayList<ControlTower> lanes;
+	private boolean[] stopped; // true once a lane has stopped early
+	private int running; // lanes not stopped
+	private long currentTick; // number of ticks completed
+
+	/**
+	 * Constructs an engine with no lanes
+	 * @param random Generator the shared draws are taken from. Moved on by one split.
+	 */
+	public LockstepEngine(RandomGenerator random) {
+		draws = new CommonRandomNumbers(random);
+		lanes = new ArrayList<ControlTower>();
+		stopped = new boolean[16];
+		running = 0;
+		currentTick = 0;
+	}
+
+	/**
+	 * Creates the context for a new lane, which a tower should be built from and then added with addLane()
+	 * @param context Probabilities and log for the lane. Its random stream is replaced by the shared draws.
+	 * @return SimulationContext for the lane
+	 */
+	public SimulationContext laneContext(SimulationContext context) {
+		return context.withRandom(draws.newLane());
+	}
+
+	/**
+	 * Adds a lane. Must be done before the first tick is run.
+	 * @param tower Tower built from a context made by laneContext(), not yet ticked
+	 */
+	public void addLane(ControlTower tower) {
+		if(lanes.size() == stopped.length) {
+			boolean[] grown = new boolean[stopped.length * 2];
+			System.arraycopy(stopped, 0, grown, 0, stopped.length);
+			stopped = grown;
+		}
+		lanes.add(tower);
+		running++;
+	}
+
+	public int getLaneCount() {
+		return lanes.size();
+	}
+
+	public ControlTower getLane(int lane) {
+		return lanes.get(lane);
+	}
+
+	/**
+	 * @param lane
+	 * @return true if the lane has stopped early
+	 */
+	public boolean isStopped(int lane) {
+		return stopped[lane];
+	}
+
+	/**
+	 * Returns the number of ticks completed so far
+	 * @return currentTick
+	 */
+	public long getCurrentTick() {
+		return currentTick;
+	}
+
+	/**
+	 * Runs every lane until the given number of ticks have been completed. A lane which can stop early
+	 * drops out, with its stop recorded in its ControlStats, and the others carry on with the same draws
+	 * as they would have had anyway. Can be called again with a later tick to carry on.
+	 *
+	 * @param endTick Tick to stop after
+	 * @param earlyExit When a lane can stop early
+	 * @return true if any lane is still running
+	 */
+	public boolean runUntil(long endTick, EarlyExit earlyExit) {
+		boolean checking = earlyExit.isEnabled();
+		while(currentTick < endTick && running > 0) {
+			draws.nextTick();
+			currentTick++;
+
+			for(int lane = 0; lane < lanes.size(); lane++) {
+				if(stopped[lane]) {
+					continue;
+				}
+
+				ControlTower tower = lanes.get(lane);
+				tower.oneTick();
+				if(checking) {
+					StopReasonEnum reason = earlyExit.check(tower);
+					if(reason != null) {
+						tower.getStats().setStop(reason, currentTick);
+						stopped[lane] = true;
+						running--;
+					}
+				}
+			}
+		}
+		return running > 0;
+	}
+}
@@ -0,0 +1,71 @@
+package airport;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import utils.RandomGenerator;
+
+/**
+ * Tests that lanes run by a LockstepEngine share their random numbers, and that a lane's
+ * results don't depend on the other lanes beside it.
+ */
+public class LockstepEngineTest {
+	private static final long TICKS = 2000;
+
+	/**
+	 * Runs one lane for each value of P, from seed 42
+	 * @param pValues
+	 * @return engine after running every tick
+	 */
+	private LockstepEngine run(double... pValues) {
+		LockstepEngine engine = new LockstepEngine(new RandomGenerator(42));
+		for(double pValue : pValues) {
+			SimulationContext context = new SimulationContext(new RandomGenerator(1), pValue);
+			engine.addLane(new ControlTowerFuelArrivals(engine.laneContext(context)));
+		}
+		engine.runUntil(TICKS, EarlyExit.NEVER);
+		return engine;
+	}
+
+	private void assertSameStats(ControlStats expected, ControlStats actual) {
+		assertEquals(expected.getTotalLandings(), actual.getTotalLandings());
+		assertEquals(expected.getTotalDeparted(), actual.getTotalDeparted());
+		assertEquals(expected.getTotalCrashes(), actual.getTotalCrashes());
+		assertEquals(expected.getTotalWaitingTime(), actual.getTotalWaitingTime());
+	}
+
+	@Test
+	public void testLaneSameAloneOrBesideOthers() {
+		LockstepEngine alone = run(0.05);
+		LockstepEngine beside = run(0.01, 0.05, 0.1);
+
+		assertEquals(TICKS, beside.getCurrentTick());
+		assertSameStats(alone.getLane(0).getStats(), beside.getLane(1).getStats());
+	}
+
+	@Test
+	public void testSamePSameStats() {
+		LockstepEngine engine = run(0.05, 0.05);
+		assertSameStats(engine.getLane(0).getStats(), engine.getLane(1).getStats());
+		assertTrue(engine.getLane(0).getStats().getTotalLandings() > 0);
+	}
+
+	/**
+	 * A lane which stops early drops out, and the others carry on to the end
+	 */
+	@Test
+	public void testLaneStopsEarly() {
+		LockstepEngine engine = new LockstepEngine(new RandomGenerator(42));
+		for(double pValue : new double[] {0.01, 0.5}) {
+			SimulationContext context = new SimulationContext(new RandomGenerator(1), pValue);
+			engine.addLane(new ControlTowerFuelArrivals(engine.laneContext(context)));
+		}
+
+		assertTrue(engine.runUntil(TICKS, new EarlyExit(1, 0)));
+		assertEquals(TICKS, engine.getCurrentTick());
+		assertFalse(engine.isStopped(0));
+		assertTrue(engine.isStopped(1));
+		assertEquals(StopReasonEnum.CRASH_BUDGET, engine.getLane(1).getStats().getStopReason());
+	}
+}
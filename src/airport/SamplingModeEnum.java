@@ -0,0 +1,16 @@
+package airport;
+
+/**
+ * Used to identify how a control tower draws its random events
+ * 
+ * EVERY_TICK draws a number every tick (and for every aircraft in departures) and checks it against
+ * the probability.
+ * SKIP_AHEAD draws how many ticks until the next event happens instead, so only draws when something
+ * does happen. Statistically the same, but gives different results for a given seed.
+ * 
+ * @version 17/10/2026
+ */
+public enum SamplingModeEnum {
+	EVERY_TICK,
+	SKIP_AHEAD
+}
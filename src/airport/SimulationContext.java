@@ -0,0 +1,139 @@
+package airport;
+
+import utils.Debug;
+import utils.LogSink;
+import utils.RandomGenerator;
+import aircraft.CommercialAircraft;
+import aircraft.Glider;
+import aircraft.LightAircraft;
+
+/**
+ * Holds everything a single simulation run needs which used to be global: the random stream,
+ * the spawn probabilities of each aircraft type, the aircraft factories and where debug output goes.
+ * 
+ * Nothing in here is shared with other contexts (unless passed in), so many control towers can
+ * run at the same time in one JVM, as long as each has its own context.
+ * 
+ * @version 17/10/2026
+ */
+public class SimulationContext {
+	private final RandomGenerator random; // random stream for this run
+	private final double gliderProbability; // probability of a glider spawning each tick
+	private final double lightProbability; // probability of a light aircraft spawning each tick
+	private final double commercialProbability; // value of P
+	private final LogSink log; // where debug output goes
+	private final SamplingModeEnum samplingMode; // how random events are drawn
+
+	/**
+	 * Constructs a context with the standard glider/light aircraft probabilities,
+	 * writing debug output through utils.Debug
+	 * 
+	 * @param random Random stream for this run
+	 * @param commercialProbability Value of P (commercial aircraft probability)
+	 */
+	public SimulationContext(RandomGenerator random, double commercialProbability) {
+		this(random, Glider.getSpawnProbability(), LightAircraft.getSpawnProbability(), commercialProbability, Debug.getSink());
+	}
+
+	/**
+	 * Constructs a context with every value given
+	 * 
+	 * @param random Random stream for this run
+	 * @param gliderProbability Probability of a glider spawning each tick
+	 * @param lightProbability Probability of a light aircraft spawning each tick
+	 * @param commercialProbability Value of P (commercial aircraft probability)
+	 * @param log Where debug output goes
+	 */
+	public SimulationContext(RandomGenerator random, double gliderProbability, double lightProbability, double commercialProbability, LogSink log) {
+		this(random, gliderProbability, lightProbability, commercialProbability, log, SamplingModeEnum.EVERY_TICK);
+	}
+
+	private SimulationContext(RandomGenerator random, double gliderProbability, double lightProbability, double commercialProbability, LogSink log,
+			SamplingModeEnum samplingMode) {
+		this.random = random;
+		this.gliderProbability = gliderProbability;
+		this.lightProbability = lightProbability;
+		this.commercialProbability = commercialProbability;
+		this.log = log;
+		this.samplingMode = samplingMode;
+	}
+
+	/**
+	 * Creates a context for another value of P, carrying on with the same random stream and log
+	 * 
+	 * @param commercialProbability New value of P
+	 * @return SimulationContext with the new P
+	 */
+	public SimulationContext withCommercialProbability(double commercialProbability) {
+		return new SimulationContext(random, gliderProbability, lightProbability, commercialProbability, log, samplingMode);
+	}
+
+	/**
+	 * Creates a context with the same settings but its own random stream
+	 * 
+	 * @param random New random stream
+	 * @return SimulationContext using the new stream
+	 */
+	public SimulationContext withRandom(RandomGenerator random) {
+		return new SimulationContext(random, gliderProbability, lightProbability, commercialProbability, log, samplingMode);
+	}
+
+	/**
+	 * Creates a context with the same settings, drawing random events in a different way
+	 * 
+	 * @param samplingMode How random events are drawn
+	 * @return SimulationContext using the sampling mode
+	 */
+	public SimulationContext withSamplingMode(SamplingModeEnum samplingMode) {
+		return new SimulationContext(random, gliderProbability, lightProbability, commercialProbability, log, samplingMode);
+	}
+
+	public RandomGenerator getRandom() {
+		return random;
+	}
+
+	public double getGliderProbability() {
+		return gliderProbability;
+	}
+
+	public double getLightProbability() {
+		return lightProbability;
+	}
+
+	public double getCommercialProbability() {
+		return commercialProbability;
+	}
+
+	public LogSink getLog() {
+		return log;
+	}
+
+	public SamplingModeEnum getSamplingMode() {
+		return samplingMode;
+	}
+
+	/* ##########################################
+	   # AIRCRAFT FACTORIES                     #
+	   ########################################## */
+
+	public Glider newGlider() {
+		return new Glider();
+	}
+
+	/**
+	 * Creates a light aircraft, with its fuel drawn from this context's random stream
+	 * @param hasGlider true if towing a glider
+	 * @return LightAircraft
+	 */
+	public LightAircraft newLightAircraft(boolean hasGlider) {
+		return new LightAircraft(hasGlider, random);
+	}
+
+	/**
+	 * Creates a commercial aircraft, with its fuel drawn from this context's random stream
+	 * @return CommercialAircraft
+	 */
+	public CommercialAircraft newCommercialAircraft() {
+		return new CommercialAircraft(random);
+	}
+}
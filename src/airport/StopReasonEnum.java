@@ -0,0 +1,18 @@
+package airport;
+
+/**
+ * Used to identify why a simulation stopped
+ * 
+ * COMPLETED ran every tick it was asked to.
+ * CRASH_BUDGET stopped early, as the number of crashes allowed by its EarlyExit had been reached.
+ * DIVERGED stopped early, as arrivals or departures grew past the queue limit of its EarlyExit, so
+ * the airport was never going to catch up.
+ * Values are in order of how bad the stop was, which merging statistics relies on.
+ * 
+ * @version 17/10/2026
+ */
+public enum StopReasonEnum {
+	COMPLETED,
+	CRASH_BUDGET,
+	DIVERGED
+}
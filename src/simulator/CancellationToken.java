@@ -0,0 +1,22 @@
+package simulator;
+
+/**
+ * Asks a running simulation to stop. The simulation checks it between batches of ticks,
+ * so cancelling takes effect within one batch. Safe to cancel from any thread.
+ * 
+ * @version 17/10/2026
+ */
+public class CancellationToken {
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Asks every simulation using this token to stop
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,14 @@
+package simulator;
+
+/**
+ * Used to identify how a simulation moves through time
+ * 
+ * TICK runs every tick of the control tower in turn.
+ * EVENT skips from one event to the next (see airport.EventEngine). Gives the same statistics.
+ * 
+ * @version 17/10/2026
+ */
+public enum EngineTypeEnum {
+	TICK,
+	EVENT
+}
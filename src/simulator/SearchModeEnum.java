@@ -0,0 +1,14 @@
+package simulator;
+
+/**
+ * Used to identify how simulateAuto searches for the highest P with no crashes
+ * 
+ * LINEAR steps P up by pInterval until the first crash.
+ * BISECTION brackets the first crash, then halves the bracket until it is within the search tolerance.
+ * 
+ * @version 17/10/2026
+ */
+public enum SearchModeEnum {
+	LINEAR,
+	BISECTION
+}
@@ -3,14 +3,34 @@ package simulator;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import aircraft.Glider;
 import aircraft.LightAircraft;
 import airport.ControlStats;
+import airport.ControlStatsAccumulator;
 import airport.ControlTower;
 import airport.ControlTowerFIFOArrivals;
 import airport.ControlTowerFuelArrivals;
+import airport.EarlyExit;
+import airport.EventEngine;
+import airport.LockstepEngine;
+import airport.PairedStats;
+import airport.SamplingModeEnum;
+import airport.SimulationContext;
+import airport.StopReasonEnum;
 import utils.IO;
+import utils.LogLevelEnum;
+import utils.LogOverflowEnum;
+import utils.RandomBackendEnum;
+import utils.RandomGenerator;
+import utils.TickClock;
 
 /**
  * Responsible for setting up a simulation using given input parameters (P value, queue type, etc).
@@ -40,10 +60,29 @@ public class Simulator
 	private boolean enableGUI = true; //default is to show GUI. true = enabled, false = disabled
 
 	private QueueTypeEnum queueType = QueueTypeEnum.FIFO;
-	private int numberOfTicks = 2880;
+	private long numberOfTicks = 2880;
 	
-	private long tickCount = 0;
+	private final AtomicLong tickCount; // shared with the runs of a parallel sweep, for the progress bar
 	private long ticksToComplete = 0;
+	private CancellationToken cancellation; // shared with the runs of a parallel sweep, so one cancel stops them all
+	private int notifyTicks = ticksInADay; // listeners are told about progress at least this often, in ticks
+	private long notifyMillis = 100; // and at least this often, in milliseconds
+	
+	private SimulationContext context; // random stream, probabilities and log for the runs of this simulator
+	private int threads = 1; // number of seeds simulateAuto runs at the same time
+	private String runLabel = ""; // put in front of sweep output when seeds run in parallel
+	private StringBuilder seedOutput; // output of a seed run in parallel, printed in one block once it finishes. null to print straight away
+	private boolean reportCancel = true; // false for the seeds of a sweep, as the sweep reports it once
+	
+	private SearchModeEnum searchMode = SearchModeEnum.LINEAR; // how simulateAuto looks for the highest good P
+	private double searchTolerance = pInterval; // bisection stops once the crash boundary is known to within this
+	private int searchRepeats = 1; // independent runs each bisection probe must pass without crashing
+	private final AtomicLong simulationsRun; // number of simulate() calls made by a sweep, across all seeds
+	private final ControlStatsAccumulator totals; // statistics of every simulate() call made by a sweep, across all seeds
+	private int simulationCount = 0; // number of simulate() calls made by this simulator alone
+	private EngineTypeEnum engineType = EngineTypeEnum.TICK; // how each simulation moves through time
+	private EarlyExit earlyExit = EarlyExit.NEVER; // when a simulation can stop before running every tick
+	private int lanes = 1; // values of P the linear search runs side by side, through the same random numbers
 	
 	public static final double pInterval = 0.001;
 
@@ -51,7 +90,52 @@ public class Simulator
 		this.ticksToComplete = ticksToComplete;
 	}
 
-	public Simulator() { }
+	/**
+	 * Creates a simulator which uses the shared random generator and writes to utils.Debug
+	 */
+	public Simulator() {
+		this(new SimulationContext(RandomGenerator.getShared(), 0));
+	}
+	
+	/**
+	 * Creates a simulator whose runs take their random stream, probabilities and log from the context.
+	 * The value of P in the context is replaced by the probability set on the simulator.
+	 * @param context
+	 */
+	public Simulator(SimulationContext context) {
+		this.context = context;
+		tickCount = new AtomicLong();
+		cancellation = new CancellationToken();
+		simulationsRun = new AtomicLong();
+		totals = new ControlStatsAccumulator();
+	}
+	
+	/**
+	 * Creates a simulator for one seed of a sweep. Takes the settings of the parent,
+	 * and shares its listeners, progress and cancellation token.
+	 * @param parent The simulator running the sweep
+	 */
+	private Simulator(Simulator parent) {
+		tickCount = parent.tickCount;
+		cancellation = parent.cancellation;
+		notifyTicks = parent.notifyTicks;
+		notifyMillis = parent.notifyMillis;
+		simulationsRun = parent.simulationsRun;
+		totals = parent.totals;
+		listeners = parent.listeners;
+		ticksToComplete = parent.ticksToComplete;
+		queueType = parent.queueType;
+		numberOfTicks = parent.numberOfTicks;
+		searchMode = parent.searchMode;
+		searchTolerance = parent.searchTolerance;
+		searchRepeats = parent.searchRepeats;
+		engineType = parent.engineType;
+		earlyExit = parent.earlyExit;
+		lanes = parent.lanes;
+		context = parent.context;
+		reportCancel = false;
+		enableGUI = false;
+	}
 	
 	/**
 	 * Main method for the program. Takes in a number of input parameters and sets up a simulation using
@@ -61,7 +145,9 @@ public class Simulator
 	public static void main(String[] args)
 	{		
 		boolean auto = false;
+		boolean paired = false; // FIFO and fuel priority side by side
 		int timesToRun = 0;
+		LogOverflowEnum logOverflow = LogOverflowEnum.DROP;
 
 		Simulator s = new Simulator();
 
@@ -80,7 +166,7 @@ public class Simulator
 					break;
 
 				case "-T":
-					s.setNumTicks(Integer.parseInt(args[i+1]));
+					s.setNumTicks(Long.parseLong(args[i+1]));
 					i++; //skip to arg after next
 					break;
 
@@ -90,11 +176,35 @@ public class Simulator
 					i++; //skip to arg after next
 					break;
 
+				case "-RNG":
+					utils.RandomGenerator.setBackend(RandomBackendEnum.valueOf(args[i+1].toUpperCase()));
+					i++; //skip to arg after next
+					break;
+
+				case "-RNGBUFFER":
+					utils.RandomGenerator.setBuffered(true);
+					break;
+
 				case "-D":
 					utils.Debug.setEnabled(true);
 					utils.Debug.println("Debug Mode On.");
 					break;
 
+				case "-LOGOVERFLOW":
+					logOverflow = LogOverflowEnum.valueOf(args[i+1].toUpperCase());
+					i++; //skip to arg after next
+					break;
+
+				case "-TICKSTAMPS":
+					utils.Debug.setTickTimestamps(true);
+					break;
+
+				case "-LOGLEVEL":
+					utils.Debug.setLevel(LogLevelEnum.valueOf(args[i+1].toUpperCase()));
+					utils.Debug.log(LogLevelEnum.INFO, "Debug Mode On.");
+					i++; //skip to arg after next
+					break;
+
 				case "-PRIORITY":
 					s.setQueueType(QueueTypeEnum.PRIORITY);
 					break;
@@ -103,12 +213,58 @@ public class Simulator
 					s.setQueueType(QueueTypeEnum.FIFO);
 					break;
 
+				case "-PAIRED":
+					paired = true;
+					break;
+
 				case "-AUTO":
 					auto = true;
 					timesToRun = Integer.parseInt(args[i+1]);
 					i++; //skip to arg after next
 					break;
 
+				case "-THREADS":
+					s.setThreads(Integer.parseInt(args[i+1]));
+					i++; //skip to arg after next
+					break;
+
+				case "-BISECT":
+					s.setSearchMode(SearchModeEnum.BISECTION);
+					break;
+
+				case "-EVENTS":
+					s.setEngineType(EngineTypeEnum.EVENT);
+					break;
+
+				case "-SKIPSAMPLING":
+					s.setSamplingMode(SamplingModeEnum.SKIP_AHEAD);
+					break;
+
+				case "-TOLERANCE":
+					s.setSearchTolerance(Double.parseDouble(args[i+1]));
+					i++; //skip to arg after next
+					break;
+
+				case "-CRASHBUDGET":
+					s.setEarlyExit(new EarlyExit(Integer.parseInt(args[i+1]), s.getEarlyExit().getQueueLimit()));
+					i++; //skip to arg after next
+					break;
+
+				case "-QUEUELIMIT":
+					s.setEarlyExit(new EarlyExit(s.getEarlyExit().getCrashBudget(), Integer.parseInt(args[i+1])));
+					i++; //skip to arg after next
+					break;
+
+				case "-LANES":
+					s.setLanes(Integer.parseInt(args[i+1]));
+					i++; //skip to arg after next
+					break;
+
+				case "-REPEATS":
+					s.setSearchRepeats(Integer.parseInt(args[i+1]));
+					i++; //skip to arg after next
+					break;
+
 				case "-?":
 
 					try 
@@ -146,14 +302,19 @@ public class Simulator
 			//later on when the first random number is requested 
 		}
 
+		// from here on output is written in the background, so simulations don't wait for the console
+		utils.Debug.startAsync(utils.Debug.DEFAULT_QUEUE_SIZE, logOverflow);
+
 		if (s.getGuiStatus()) {
 			new SimulatorGUI();
 		} else {
 			// start simulation if in command line mode
-			if(!auto) {
-				s.simulate();
-			} else {
+			if(auto) {
 				s.simulateAuto(timesToRun);
+			} else if(paired) {
+				s.simulatePaired();
+			} else {
+				s.simulate();
 			}
 		}
 
@@ -180,14 +341,20 @@ public class Simulator
 	}
 
 	/**
-	 * Set number of ticks to run the simulation for
-	 * @param numberOfTicks
+	 * Set number of ticks to run the simulation for. The total over a sweep can be far more, but
+	 * each run is capped at TickClock.MAX_TICKS (a little under 2^31), as the clock and the queues
+	 * hold ticks as ints.
+	 * @param numberOfTicks At most TickClock.MAX_TICKS
+	 * @throws IllegalArgumentException if numberOfTicks is more than TickClock.MAX_TICKS
 	 */
-	public void setNumTicks(int numberOfTicks) {
+	public void setNumTicks(long numberOfTicks) {
+		if(numberOfTicks > TickClock.MAX_TICKS) {
+			throw new IllegalArgumentException("A run can't last more than " + TickClock.MAX_TICKS + " ticks");
+		}
 		this.numberOfTicks = numberOfTicks;
 	}
 
-	public int getNumTicks() {
+	public long getNumTicks() {
 		return numberOfTicks;
 	}
 
@@ -203,6 +370,178 @@ public class Simulator
 		return numberOfTicks;
 	}
 
+	/**
+	 * Set the number of seeds simulateAuto runs at the same time. The result
+	 * is the same whatever the number of threads.
+	 * @param threads
+	 */
+	public void setThreads(int threads) {
+		if(threads < 1) {
+			throw new IllegalArgumentException("Need at least one thread");
+		}
+		this.threads = threads;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Set how simulateAuto searches for the highest P with no crashes
+	 * @param searchMode
+	 */
+	public void setSearchMode(SearchModeEnum searchMode) {
+		this.searchMode = searchMode;
+	}
+
+	public SearchModeEnum getSearchMode() {
+		return searchMode;
+	}
+
+	/**
+	 * Set whether simulations run every tick or skip from one event to the next
+	 * @param engineType
+	 */
+	public void setEngineType(EngineTypeEnum engineType) {
+		this.engineType = engineType;
+	}
+
+	public EngineTypeEnum getEngineType() {
+		return engineType;
+	}
+
+	/**
+	 * Set whether random events are drawn every tick, or by drawing the ticks until the next one
+	 * @param samplingMode
+	 */
+	public void setSamplingMode(SamplingModeEnum samplingMode) {
+		context = context.withSamplingMode(samplingMode);
+	}
+
+	public SamplingModeEnum getSamplingMode() {
+		return context.getSamplingMode();
+	}
+
+	/**
+	 * Set how close the bisection search must get to the crash boundary before stopping.
+	 * Defaults to pInterval, the resolution of the linear search.
+	 * @param searchTolerance
+	 */
+	public void setSearchTolerance(double searchTolerance) {
+		if(searchTolerance <= 0) {
+			throw new IllegalArgumentException("Tolerance must be above 0");
+		}
+		this.searchTolerance = searchTolerance;
+	}
+
+	public double getSearchTolerance() {
+		return searchTolerance;
+	}
+
+	/**
+	 * Set how often listeners are told about progress: after the given number of ticks, or the
+	 * given time, whichever comes first. Cancelling is checked at least as often.
+	 * @param ticks
+	 * @param millis
+	 */
+	public void setNotifyInterval(int ticks, long millis) {
+		if(ticks < 1) {
+			throw new IllegalArgumentException("Need at least one tick between notifications");
+		}
+		this.notifyTicks = ticks;
+		this.notifyMillis = millis;
+	}
+
+	public int getNotifyTicks() {
+		return notifyTicks;
+	}
+
+	public long getNotifyMillis() {
+		return notifyMillis;
+	}
+
+	/**
+	 * Set the token which stops the simulation when cancelled. Runs of a sweep share it.
+	 * @param cancellation
+	 */
+	public void setCancellationToken(CancellationToken cancellation) {
+		this.cancellation = cancellation;
+	}
+
+	public CancellationToken getCancellationToken() {
+		return cancellation;
+	}
+
+	/**
+	 * Set the number of independent runs each value of P tried by the bisection search must
+	 * pass with no crashes. Near the crash boundary a single run is down to luck, so more repeats
+	 * make the answer more cautious (and less noisy) at the cost of more simulations.
+	 * @param searchRepeats
+	 */
+	public void setSearchRepeats(int searchRepeats) {
+		if(searchRepeats < 1) {
+			throw new IllegalArgumentException("Need at least one repeat");
+		}
+		this.searchRepeats = searchRepeats;
+	}
+
+	public int getSearchRepeats() {
+		return searchRepeats;
+	}
+
+	/**
+	 * Set when each simulation can stop before running every tick. A sweep only needs to know whether
+	 * a run crashed, so stopping at the first crash gives the same answer in a fraction of the time.
+	 * @param earlyExit
+	 */
+	public void setEarlyExit(EarlyExit earlyExit) {
+		this.earlyExit = earlyExit;
+	}
+
+	public EarlyExit getEarlyExit() {
+		return earlyExit;
+	}
+
+	/**
+	 * Set the number of values of P the linear search runs side by side (see LockstepEngine). Each block
+	 * of P values shares one set of random numbers, so the results differ from running them one at a time.
+	 * 1 runs each value of P on its own.
+	 * @param lanes At least 1
+	 */
+	public void setLanes(int lanes) {
+		if(lanes < 1) {
+			throw new IllegalArgumentException("Need at least one lane");
+		}
+		this.lanes = lanes;
+	}
+
+	public int getLanes() {
+		return lanes;
+	}
+
+	/**
+	 * Gets the number of simulations run so far, including those of every seed of a sweep
+	 * @return number of simulations
+	 */
+	public long getSimulationsRun() {
+		return simulationsRun.get();
+	}
+
+	/**
+	 * Gets the statistics of every simulation run so far, including those of every seed of a sweep
+	 * @return the combined statistics, added to as simulations finish
+	 */
+	public ControlStatsAccumulator getTotals() {
+		return totals;
+	}
+
+	/**
+	 * Throws away the statistics of every simulation run so far, ready for another sweep
+	 */
+	public void resetTotals() {
+		totals.reset();
+	}
+
 	// ************************************************************************************************************
 	//SIMULATE
 	/**
@@ -211,100 +550,269 @@ public class Simulator
 	 */
 	public int simulate() 
 	{
-		ControlTower controlTower;
+		return simulate(context.withCommercialProbability(probability));
+	}
 
-		if(getQueueType() == QueueTypeEnum.PRIORITY) {
-			controlTower = new ControlTowerFuelArrivals(probability);
-		} else {
-			controlTower = new ControlTowerFIFOArrivals(probability);
-		}
+	/**
+	 * Runs the simulation for the specified number of steps, using a control tower built from the given context.
+	 * Stops sooner if the early exit allows it. A run which stops because its queues diverged counts as
+	 * at least one crash, so a sweep treats it as failed.
+	 * @param runContext Random stream, probabilities and log for this run
+	 * @return number of crashes, or -1 if cancelled
+	 */
+	private int simulate(SimulationContext runContext)
+	{
+		simulationsRun.incrementAndGet();
+		simulationCount++;
+		ControlTower controlTower = createTower(runContext, getQueueType());
 
+		EventEngine eventEngine = (engineType == EngineTypeEnum.EVENT) ? new EventEngine(controlTower) : null;
 
-		for(int i = 0; i < numberOfTicks; i++) 
+		// ticks are run in batches of up to an hour. cancelling is checked after each batch, and
+		// listeners are told once enough ticks or enough time have gone by
+		int batchTicks = Math.min(notifyTicks, ticksInAnHour);
+		long notifyNanos = notifyMillis * 1000000L;
+		long lastNotifyTime = System.nanoTime();
+		long ticksSinceNotify = 0;
+		boolean checking = earlyExit.isEnabled();
+		StopReasonEnum stopReason = null;
+		long tick = 0;
+
+		while(tick < numberOfTicks && stopReason == null) 
 		{
-			controlTower.oneTick();
-			tickCount++;
-			double progper = 100.0/ticksToComplete*tickCount ;
-			raiseProgressTrackerEvent(progper);
+			int ticks = (int) Math.min(batchTicks, numberOfTicks - tick);
+			if(eventEngine != null) {
+				stopReason = eventEngine.runUntil(tick + ticks, earlyExit);
+				ticks = (int) (eventEngine.getCurrentTick() - tick);
+			} else {
+				for(int t = 0; t < ticks; t++) {
+					controlTower.oneTick();
+					if(checking && (stopReason = earlyExit.check(controlTower)) != null) {
+						ticks = t + 1;
+						break;
+					}
+				}
+			}
+			tick += ticks;
+			ticksSinceNotify += ticks;
 
-			if(raiseAfterTickEvent())
+			if(cancellation.isCancelled())
 			{
 				//CANCEL SIMULATION REQUESTED!!!
-				utils.Debug.superPrintln("Simulation has been cancelled!!");
+				tickCount.addAndGet(ticksSinceNotify);
+				if(reportCancel) {
+					utils.Debug.superPrintln("Simulation has been cancelled!!");
+				}
 				return -1;
 			}
+
+			if(ticksSinceNotify >= notifyTicks || System.nanoTime() - lastNotifyTime >= notifyNanos) {
+				notifyProgress(ticksSinceNotify);
+				ticksSinceNotify = 0;
+				lastNotifyTime = System.nanoTime();
+			}
 		}
-		
-		raiseAfterSimulateEvent(controlTower.getStats()); 
+		if(stopReason != null) {
+			ticksSinceNotify += numberOfTicks - tick; // the ticks not needed still count towards the progress bar
+		}
+		if(ticksSinceNotify > 0) {
+			notifyProgress(ticksSinceNotify);
+		}
+		controlTower.getStats().setStop((stopReason == null) ? StopReasonEnum.COMPLETED : stopReason, tick);
+		return finishRun(controlTower);
+	}
+
+	/**
+	 * Runs one simulation for each value of P side by side, through the same random numbers (see LockstepEngine).
+	 * Every tick is run whatever the engine type, and each lane stops early on its own.
+	 * @param pValues Value of P for each lane
+	 * @return number of crashes for each value of P, or null if cancelled
+	 */
+	private int[] simulateLanes(double[] pValues)
+	{
+		LockstepEngine engine = new LockstepEngine(context.getRandom());
+		for(double pValue : pValues) {
+			engine.addLane(createTower(engine.laneContext(context.withCommercialProbability(pValue)), getQueueType()));
+		}
+		return runLanes(engine);
+	}
+
+	/**
+	 * Runs a FIFO tower and a fuel priority tower side by side at the simulator's probability, through
+	 * the same random numbers (see LockstepEngine). Both see the same spawns, fuel and breakdown draws,
+	 * so the difference between them is down to the queue type rather than luck. The queue type set
+	 * on the simulator is ignored.
+	 * @return statistics of both towers, or null if cancelled
+	 */
+	public PairedStats simulatePaired()
+	{
+		LockstepEngine engine = new LockstepEngine(context.getRandom());
+		SimulationContext runContext = context.withCommercialProbability(probability);
+		engine.addLane(createTower(engine.laneContext(runContext), QueueTypeEnum.FIFO));
+		engine.addLane(createTower(engine.laneContext(runContext), QueueTypeEnum.PRIORITY));
+		if(runLanes(engine) == null) {
+			return null;
+		}
+
+		PairedStats paired = new PairedStats(engine.getLane(0).getStats(), engine.getLane(1).getStats());
+		utils.Debug.superPrintln(paired.differenceToString());
+		return paired;
+	}
+
+	/**
+	 * Runs every lane of an engine for the specified number of steps, in batches as in simulate()
+	 * @param engine Engine with a lane for each simulation, not yet ticked
+	 * @return number of crashes for each lane, or null if cancelled
+	 */
+	private int[] runLanes(LockstepEngine engine)
+	{
+		int laneCount = engine.getLaneCount();
+		simulationsRun.addAndGet(laneCount);
+		simulationCount += laneCount;
+
+		// batches, cancelling and listeners as in simulate(). progress counts the ticks of every lane
+		int batchTicks = Math.min(notifyTicks, ticksInAnHour);
+		long notifyNanos = notifyMillis * 1000000L;
+		long lastNotifyTime = System.nanoTime();
+		long ticksSinceNotify = 0;
+		boolean running = true;
+
+		while(engine.getCurrentTick() < numberOfTicks && running)
+		{
+			long tick = engine.getCurrentTick();
+			running = engine.runUntil(Math.min(tick + batchTicks, numberOfTicks), earlyExit);
+			ticksSinceNotify += (engine.getCurrentTick() - tick) * laneCount;
+
+			if(cancellation.isCancelled())
+			{
+				tickCount.addAndGet(ticksSinceNotify);
+				if(reportCancel) {
+					utils.Debug.superPrintln("Simulation has been cancelled!!");
+				}
+				return null;
+			}
+
+			if(ticksSinceNotify >= notifyTicks || System.nanoTime() - lastNotifyTime >= notifyNanos) {
+				notifyProgress(ticksSinceNotify);
+				ticksSinceNotify = 0;
+				lastNotifyTime = System.nanoTime();
+			}
+		}
+		ticksSinceNotify += (numberOfTicks - engine.getCurrentTick()) * laneCount; // every lane stopped early
+		if(ticksSinceNotify > 0) {
+			notifyProgress(ticksSinceNotify);
+		}
+
+		int[] crashes = new int[laneCount];
+		for(int lane = 0; lane < laneCount; lane++) {
+			ControlTower controlTower = engine.getLane(lane);
+			if(!engine.isStopped(lane)) {
+				controlTower.getStats().setStop(StopReasonEnum.COMPLETED, engine.getCurrentTick());
+			}
+			crashes[lane] = finishRun(controlTower);
+		}
+		return crashes;
+	}
+
+	/**
+	 * Creates a control tower of the given queue type
+	 * @param runContext Random stream, probabilities and log for the tower
+	 * @param queueType
+	 * @return ControlTower
+	 */
+	private ControlTower createTower(SimulationContext runContext, QueueTypeEnum queueType) {
+		if(queueType == QueueTypeEnum.PRIORITY) {
+			return new ControlTowerFuelArrivals(runContext);
+		} else {
+			return new ControlTowerFIFOArrivals(runContext);
+		}
+	}
+
+	/**
+	 * Adds a finished run to the totals, tells the listeners and prints its statistics
+	 * @param controlTower Tower whose run has finished, with its stop recorded
+	 * @return number of crashes. A run which diverged counts as at least one
+	 */
+	private int finishRun(ControlTower controlTower) {
+		ControlStats stats = controlTower.getStats();
+		totals.add(stats);
+		raiseAfterSimulateEvent(stats); 
 
 		
-		utils.Debug.superPrintln(controlTower.getStats().toString()); // once finished, print out statistics
+		print(stats.toString()); // once finished, print out statistics
 
-		int crashes = controlTower.getStats().getCrashes();
-		return crashes; // return number of crashes
+		long crashes = stats.getCrashes();
+		if(stats.getStopReason() == StopReasonEnum.DIVERGED) {
+			crashes = Math.max(crashes, 1);
+		}
+		return (int) Math.min(crashes, Integer.MAX_VALUE); // return number of crashes
 	}
 
 	
 	
+	/**
+	 * Adds ticks to the progress and tells the listeners
+	 * @param ticks Ticks run since the listeners were last told
+	 */
+	private void notifyProgress(long ticks) {
+		raiseProgressTrackerEvent(100.0/ticksToComplete*tickCount.addAndGet(ticks));
+		raiseAfterBatchEvent();
+	}
+
 	// ************************************************************************************************************
 	//SIMULATE AUTO
-	public void simulateAuto(int timesToRun) {
+	/**
+	 * Finds the highest value of P with no crashes for a number of seeds, then prints the average.
+	 * Seeds are run on a ForkJoinPool when more than one thread is set. Every seed is drawn before
+	 * any simulation starts and owns its own random stream, and the results are added up in seed order,
+	 * so the average is the same whatever the number of threads.
+	 * 
+	 * @param timesToRun Number of seeds to average over
+	 * @return the average highest good P, or -1 if the simulation was cancelled
+	 */
+	public double simulateAuto(int timesToRun) {
 		ArrayList<Double> goodP_allSeed = new ArrayList<Double>(); // list of all the highest P values from each simulation with a different seed
-		//double pInterval = 0.001;
-
-				double pLoopSize = ((maxP-minP)/pInterval);
 
+		List<Callable<Double>> seedRuns = new ArrayList<Callable<Double>>();
 		for (int i = 0; i < timesToRun; i++) {
-			//the following line is redundant except to technically meet the spec of the assignment
-			utils.RandomGenerator.setSeed(utils.RandomGenerator.getRandomLong());
-			double goodPmax_oneSeed = 0; // stores all good P values for one seed
-			
-			/* 
-			 * Run the simulation between minP and maxP, with the interval specified above (pInterval)
-			 */
-			for(double probability = minP; probability <= maxP; probability += pInterval) {
-				this.probability = probability;
-
-				/*
-				 * Run the simulation for a given value of P. If that simulation has 0 crashes, add it to the good values list.
-				 * Else terminate and don't add to average. 
-				 */
-				DecimalFormat df = new DecimalFormat("#.###");
-				String pThreeSF = df.format(probability);
-				int simResult = simulate(); 
-				
-				if(simResult == 0) { // all is well, no crashes
-					if (probability > goodPmax_oneSeed) { goodPmax_oneSeed = probability; } // gets the highest result from all good simulations
-
-					utils.Debug.superPrintln("P" + pThreeSF + " had 0 crashes. Adding to average.");
-					utils.Debug.superPrintln("");
-					utils.Debug.superPrintln("==========");
-				} 
-				
-				if(simResult > 0) { // oops, we had an aircraft crash
-					utils.Debug.superPrintln("P" + pThreeSF + " onwards cause crashes. Discarding.");
-					utils.Debug.superPrintln("");
-					utils.Debug.superPrintln("==========");
-					//terminate loop as we just got a crash this should remove about 90% of the execution time
-					// if starting to get crashes, then our good P value is >= the current value! No airport should have crashes.
-					
-					//re-adjust for progress bar
-					tickCount += (pLoopSize - (probability*pInterval))*numberOfTicks;
-					break;
-				}
-				
-				if(simResult < 0){ // REQUEST TO CANCEL SIMULATION
-					utils.Debug.superPrintln("Simulation has been cancelled!!");
-					return;
+			final long seed = context.getRandom().nextLong(); // one new seed per run, drawn up front so it can't depend on thread timing
+			final String label = (threads > 1) ? "Run " + (i + 1) + ": " : "";
+			seedRuns.add(new Callable<Double>() {
+				@Override
+				public Double call() {
+					return simulateSeed(seed, label);
 				}
-				
-				setProbability(minP); // reset probability back to 0
+			});
+		}
 
+		if(threads > 1) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				for(Future<Double> seedRun : pool.invokeAll(seedRuns)) { // futures come back in the order the seeds were drawn
+					goodP_allSeed.add(seedRun.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				cancellation.cancel();
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			} finally {
+				pool.shutdownNow();
+			}
+		} else {
+			for(Callable<Double> seedRun : seedRuns) {
+				try {
+					goodP_allSeed.add(seedRun.call());
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
 			}
-
-			goodP_allSeed.add(goodPmax_oneSeed); // add the highest value of P from one seed to total P values list
 		}
 
+		if(cancellation.isCancelled()) { // REQUEST TO CANCEL SIMULATION
+			utils.Debug.superPrintln("Simulation has been cancelled!!");
+			return -1;
+		}
 
 		/*
 		 * Add up all highest P values from each seed to form a total (used for average)
@@ -333,6 +841,234 @@ public class Simulator
 			
 		utils.Debug.superPrintln("Good P value (0 crashes): " + finalAvgP_rounded + "\n"); // average of all highest good P values is our final average for the user
 		utils.Debug.superPrintln("Result averaged over " + goodP_allSeed.size() + " seeds.");
+		utils.Debug.superPrintln("Simulations run: " + simulationsRun.get());
+		return finalAvgP;
+	}
+
+	/**
+	 * Runs the simulation from minP up to maxP for one seed, stopping at the first P which causes a crash.
+	 * Uses its own Simulator and SimulationContext, so it can run alongside other seeds.
+	 * 
+	 * @param seed Seed for this run's random stream
+	 * @param runLabel Text to put in front of each output line
+	 * @return the highest P with 0 crashes, or -1 if the simulation was cancelled
+	 */
+	private double simulateSeed(long seed, String runLabel) {
+		Simulator run = new Simulator(this);
+		run.context = context.withRandom(context.getRandom().withSeed(seed));
+		run.runLabel = runLabel;
+		if(threads > 1) {
+			run.seedOutput = new StringBuilder();
+		}
+
+		double goodP;
+		if(searchMode == SearchModeEnum.BISECTION) {
+			goodP = run.bisectHighestGoodP();
+		} else if(lanes > 1) {
+			goodP = run.findHighestGoodPInLanes();
+		} else {
+			goodP = run.findHighestGoodP();
+		}
+		if(goodP >= 0) {
+			run.print(runLabel + "Highest good P " + new DecimalFormat("#.####").format(goodP)
+					+ " found after " + run.simulationCount + " simulations.");
+			if(run.seedOutput != null) {
+				utils.Debug.superPrintln(run.seedOutput.toString()); // all of this seed's output, in one block so other seeds can't split it up
+			}
+		}
+		return goodP;
+	}
+
+	/**
+	 * Prints output of the sweep, or keeps it for the seed's block when seeds run in parallel
+	 * @param text
+	 */
+	private void print(String text) {
+		if(seedOutput == null) {
+			utils.Debug.superPrintln(text);
+		} else {
+			if(seedOutput.length() > 0) {
+				seedOutput.append("\n");
+			}
+			seedOutput.append(text);
+		}
+	}
+
+	/**
+	 * Steps P from minP up to maxP for this simulator's random stream.
+	 * @return the highest P with 0 crashes, or -1 if the simulation was cancelled
+	 */
+	private double findHighestGoodP() {
+		double pLoopSize = ((maxP-minP)/pInterval);
+		double goodPmax_oneSeed = 0; // stores all good P values for one seed
+
+		/* 
+		 * Run the simulation between minP and maxP, with the interval specified above (pInterval)
+		 */
+		for(double probability = minP; probability <= maxP; probability += pInterval) {
+			this.probability = probability;
+
+			/*
+			 * Run the simulation for a given value of P. If that simulation has 0 crashes, add it to the good values list.
+			 * Else terminate and don't add to average. 
+			 */
+			DecimalFormat df = new DecimalFormat("#.###");
+			String pThreeSF = df.format(probability);
+			int simResult = simulate(); 
+
+			if(simResult == 0) { // all is well, no crashes
+				if (probability > goodPmax_oneSeed) { goodPmax_oneSeed = probability; } // gets the highest result from all good simulations
+
+				print(runLabel + "P" + pThreeSF + " had 0 crashes. Adding to average.\n\n==========");
+			} 
+
+			if(simResult > 0) { // oops, we had an aircraft crash
+				print(runLabel + "P" + pThreeSF + " onwards cause crashes. Discarding.\n\n==========");
+				//terminate loop as we just got a crash this should remove about 90% of the execution time
+				// if starting to get crashes, then our good P value is >= the current value! No airport should have crashes.
+
+				//re-adjust for progress bar
+				tickCount.addAndGet((long) ((pLoopSize - (probability*pInterval))*numberOfTicks));
+				break;
+			}
+
+			if(simResult < 0){ // REQUEST TO CANCEL SIMULATION
+				return -1;
+			}
+
+			setProbability(minP); // reset probability back to 0
+		}
+
+		return goodPmax_oneSeed;
+	}
+
+	/**
+	 * Steps P from minP up to maxP in blocks of lanes, running each block side by side through the
+	 * same random numbers. Results past the first P which crashes are thrown away.
+	 * @return the highest P with 0 crashes, or -1 if the simulation was cancelled
+	 */
+	private double findHighestGoodPInLanes() {
+		DecimalFormat df = new DecimalFormat("#.###");
+		double goodPmax_oneSeed = 0;
+		double[] block = new double[lanes];
+		double probability = minP;
+
+		while(probability <= maxP) {
+			int count = 0;
+			for(; count < lanes && probability <= maxP; count++) {
+				block[count] = probability;
+				probability += pInterval;
+			}
+
+			int[] simResults = simulateLanes(Arrays.copyOf(block, count));
+			if(simResults == null) { // REQUEST TO CANCEL SIMULATION
+				return -1;
+			}
+
+			for(int lane = 0; lane < count; lane++) {
+				String pThreeSF = df.format(block[lane]);
+				if(simResults[lane] > 0) {
+					print(runLabel + "P" + pThreeSF + " onwards cause crashes. Discarding.\n\n==========");
+
+					//re-adjust for progress bar, for the values of P not run
+					if(probability <= maxP) {
+						tickCount.addAndGet((long) ((maxP - probability) / pInterval + 1) * numberOfTicks);
+					}
+					return goodPmax_oneSeed;
+				}
+
+				goodPmax_oneSeed = block[lane];
+				print(runLabel + "P" + pThreeSF + " had 0 crashes. Adding to average.\n\n==========");
+			}
+		}
+
+		return goodPmax_oneSeed;
+	}
+
+	/**
+	 * Finds the highest P with no crashes by bisection, assuming that crashes only get more likely as P goes up.
+	 * First doubles the step away from minP until a crash is found, to bracket the boundary, then halves
+	 * the bracket until it is no wider than the search tolerance.
+	 * 
+	 * Each P tried is run searchRepeats times, and only counts as good if none of them crash. Every P reuses
+	 * the same streams (drawn once per seed), so any difference between two values of P is down to P alone.
+	 * 
+	 * @return the highest P found with 0 crashes, or -1 if the simulation was cancelled
+	 */
+	private double bisectHighestGoodP() {
+		long[] repeatSeeds = new long[searchRepeats];
+		for(int i = 0; i < searchRepeats; i++) {
+			repeatSeeds[i] = context.getRandom().nextLong();
+		}
+		double goodP = minP;
+		double badP = -1; // no crash found yet
+		double step = searchTolerance;
+
+		int simResult = probe(minP, repeatSeeds);
+		if(simResult != 0) { // cancelled, or even the lowest P crashes
+			return (simResult < 0) ? -1 : minP;
+		}
+
+		// bracket the crash boundary by doubling the step
+		while(badP < 0 && goodP < maxP) {
+			double probability = Math.min(goodP + step, maxP);
+			simResult = probe(probability, repeatSeeds);
+			if(simResult < 0) {
+				return -1;
+			} else if(simResult == 0) {
+				goodP = probability;
+				step *= 2;
+			} else {
+				badP = probability;
+			}
+		}
+
+		// then halve the bracket until it is narrow enough
+		while(badP >= 0 && badP - goodP > searchTolerance) {
+			double probability = (goodP + badP) / 2;
+			simResult = probe(probability, repeatSeeds);
+			if(simResult < 0) {
+				return -1;
+			} else if(simResult == 0) {
+				goodP = probability;
+			} else {
+				badP = probability;
+			}
+		}
+
+		//re-adjust for progress bar, which expects every value of P to be run
+		long ticksUsed = (long) simulationCount * numberOfTicks;
+		long ticksExpected = (long) ((maxP-minP)/pInterval) * numberOfTicks;
+		if(ticksExpected > ticksUsed) {
+			tickCount.addAndGet(ticksExpected - ticksUsed);
+		}
+
+		return goodP;
+	}
+
+	/**
+	 * Runs one value of P for the bisection search, once for each repeat seed.
+	 * 
+	 * @param probability Value of P to try
+	 * @param repeatSeeds Seed for each repeat
+	 * @return 0 if no repeat crashed, the crashes of the first one which did, or -1 if cancelled
+	 */
+	private int probe(double probability, long[] repeatSeeds) {
+		DecimalFormat df = new DecimalFormat("#.####");
+		String pFourSF = df.format(probability);
+
+		for(long seed : repeatSeeds) {
+			int simResult = simulate(context.withRandom(context.getRandom().withSeed(seed)).withCommercialProbability(probability));
+			if(simResult != 0) {
+				if(simResult > 0) {
+					print(runLabel + "P" + pFourSF + " causes crashes. Searching lower.\n\n==========");
+				}
+				return simResult;
+			}
+		}
+
+		print(runLabel + "P" + pFourSF + " had 0 crashes. Searching higher.\n\n==========");
+		return 0;
 	}
 
 	// ************************************************************************************************************
@@ -343,39 +1079,53 @@ public class Simulator
 	 * 
 	 * @author Jason Harrison
 	 * Listener interface to allow other parts of the system to tie into the core simulation events
+	 * 
+	 * Events are called on the thread running the simulation. In a parallel sweep (see setThreads) that is
+	 * any of the sweep's threads, but events are delivered one at a time, never two at once, so a listener
+	 * needn't synchronize its own state. Anything touching Swing should still go through the event dispatch thread.
 	 */
 	public interface SimulatorListener
 	{ 
-		public boolean afterTick();
+		/**
+		 * Called after a batch of ticks: every few ticks or few milliseconds, whichever comes first (see setNotifyInterval).
+		 * In a parallel sweep this is once per batch of each seed, so the calls come from every seed in turn.
+		 * To stop the simulation, cancel its CancellationToken.
+		 */
+		public void afterBatch();
 		public void afterSimulate(ControlStats cs);
 		public void progressTracker(double percent);
 	}
 
-	ArrayList<SimulatorListener> listeners = new ArrayList<SimulatorListener>(); 
+	List<SimulatorListener> listeners = new ArrayList<SimulatorListener>(); 
 	public void addSimulatorListener(SimulatorListener SimulatorListener){	listeners.add(SimulatorListener);	}
 
-	public boolean raiseAfterTickEvent()
+	public void raiseAfterBatchEvent()
 	{ 
-		for (SimulatorListener SimulatorListener : listeners)
-		{
-			if(SimulatorListener.afterTick()){return true;}
+		synchronized(listeners) { // the seeds of a parallel sweep share the listeners, so deliver one event at a time
+			for (SimulatorListener SimulatorListener : listeners)
+			{
+				SimulatorListener.afterBatch();
+			}
 		}
-		return false;
 	}
 
 	public void raiseAfterSimulateEvent(ControlStats cs)
 	{ 
-		for (SimulatorListener SimulatorListener : listeners)
-		{
-			SimulatorListener.afterSimulate(cs);
+		synchronized(listeners) {
+			for (SimulatorListener SimulatorListener : listeners)
+			{
+				SimulatorListener.afterSimulate(cs);
+			}
 		}
 		
 	}
 	public void raiseProgressTrackerEvent(double percent)
 	{ 
-		for (SimulatorListener SimulatorListener : listeners)
-		{
-			SimulatorListener.progressTracker(percent);
+		synchronized(listeners) {
+			for (SimulatorListener SimulatorListener : listeners)
+			{
+				SimulatorListener.progressTracker(percent);
+			}
 		}
 	}
 
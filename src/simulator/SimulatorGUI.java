@@ -4,6 +4,7 @@ import java.awt.event.*;
 import java.io.File;
 import java.io.IOException;
 import java.text.NumberFormat;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.*;
 import javax.swing.border.*;
@@ -16,6 +17,7 @@ import utils.Debug;
 import utils.Debug.DataOutListener;
 import utils.IO;
 import utils.NumberTextBox;
+import utils.ResultsConsole;
 import utils.SuperSlider;
 
 /**
@@ -52,14 +54,14 @@ public class SimulatorGUI
 	private long startExecTime = 0;
 
 	/**
-	 * used to track/show the app is still executing
+	 * stops the simulation which is running
 	 */
-	private long lastTime = 0;
+	private CancellationToken cancellation = new CancellationToken();
 	
 	/**
-	 * keeps track of the alive marker in the progress bar
+	 * keeps track of the alive marker in the progress bar. the seeds of a parallel sweep move it on from several threads
 	 */
-	private int aliveMarkerTracker = 0;
+	private final AtomicInteger aliveMarkerTracker = new AtomicInteger();
 	
 	/**
 	 * 
@@ -94,8 +96,11 @@ public class SimulatorGUI
 	private final JFileChooser fileChooser = new JFileChooser();
 	private final NumberTextBox numberOfRuns = new NumberTextBox("10", 1, 750);
 	private final JLabel numberOfRunsLbl = new JLabel("times.");
-	private final JTextArea textSimulationSummary = new JTextArea();
-	private final JScrollPane summaryScroller = new JScrollPane(textSimulationSummary, JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+	private final JLabel threadsLbl = new JLabel("Threads:");
+	private final NumberTextBox threadsTxt = new NumberTextBox(""+Runtime.getRuntime().availableProcessors(), 1, 64);
+	private final JCheckBox bisectCk = new JCheckBox("Bisection search");
+	private final ResultsConsole textSimulationSummary = new ResultsConsole(10000); // keeps the last 10000 lines
+	private final JScrollPane summaryScroller = new JScrollPane(textSimulationSummary, JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
 	private final JProgressBar SimulationProgressPrBar = new JProgressBar(0, 100);
 
 
@@ -118,6 +123,7 @@ public class SimulatorGUI
 		JPanel fileOptionPanel = new JPanel();
 		JPanel pPanel = new JPanel();
 		JPanel p1Panel = new JPanel();
+		JPanel threadsPanel = new JPanel();
 		JPanel OuterSeedPanel = new JPanel();
 		JPanel OuterFilePanel = new JPanel();
 		JPanel seedPanel = new JPanel();
@@ -146,6 +152,7 @@ public class SimulatorGUI
 		fileOptionPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
 		pPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
 		p1Panel.setLayout(new FlowLayout(FlowLayout.LEFT));
+		threadsPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
 		OuterSeedPanel.setBorder(BorderFactory.createEtchedBorder(EtchedBorder.LOWERED));
 		OuterSeedPanel.setLayout(new BorderLayout());
 		OuterFilePanel.setBorder(BorderFactory.createEtchedBorder(EtchedBorder.LOWERED));
@@ -190,6 +197,7 @@ public class SimulatorGUI
 		simOptionsPanel1.add(LevelPanel, BorderLayout.NORTH);
 		simOptionsPanel1.add(OuterPPanel, BorderLayout.CENTER);
 		OuterPPanel.add(p1Panel, BorderLayout.NORTH);
+		OuterPPanel.add(threadsPanel, BorderLayout.CENTER);
 		OuterPPanel.add(pPanel, BorderLayout.SOUTH);
 		simOptionsPanel2.add(OuterSeedPanel, BorderLayout.NORTH);
 		simOptionsPanel2.add(timePanel, BorderLayout.SOUTH);
@@ -212,10 +220,9 @@ public class SimulatorGUI
 		seedTxt.setColumns(18);
 		filePathTxt.setColumns(35);
 		numberOfRuns.setColumns(7);
-		textSimulationSummary.setEditable(false); // don't want user to change this field
+		threadsTxt.setColumns(3);
 		textSimulationSummary.setBackground(null); // remove ugly white background
-		textSimulationSummary.setText("Please change the input variables on the left, then press the 'Run' button to start.");
-		textSimulationSummary.setLineWrap(true);
+		textSimulationSummary.setText("Please change the input variables on the left,\nthen press the 'Run' button to start.");
 		
 		summaryScroller.setBorder(null);
 		SimulationProgressPrBar.setStringPainted(true);
@@ -241,6 +248,10 @@ public class SimulatorGUI
 		pSlider.TB.setToolTipText(pTTString);
 		
 		numberOfRuns.setToolTipText("<HTML>Number of times to run the simulation.<br><br>An average maximum P value will be generated at the end of the simulation<br><br>From 1 to 750</HTML>");
+		String threadsTTString = "<HTML>Number of runs to simulate at the same time<br><br>The result is the same for any number of threads<br><br>From 1 to 64</HTML>";
+		threadsLbl.setToolTipText(threadsTTString);
+		threadsTxt.setToolTipText(threadsTTString);
+		bisectCk.setToolTipText("<HTML>Find the highest good P by halving the range around the first crash,<br>instead of trying every value of P.<br><br>Much faster, but assumes crashes only get more likely as P goes up</HTML>");
 		levelCombobox.setToolTipText("<HTML>Decides which settings to use for the simulation</HTML>");
 		filePathTxt.setToolTipText("<HTML>Enter the location to save an output file</HTML>");
 		goBtn.setToolTipText("<HTML>Run the simulation</HTML>");
@@ -273,6 +284,9 @@ public class SimulatorGUI
 		p1Panel.add(pAutoCk);
 		p1Panel.add(numberOfRuns);
 		p1Panel.add(numberOfRunsLbl);
+		threadsPanel.add(threadsLbl);
+		threadsPanel.add(threadsTxt);
+		threadsPanel.add(bisectCk);
 		pPanel.add(pValueLbl);
 		pPanel.add(pSlider);
 		OuterSeedPanel.add(seedCk, BorderLayout.NORTH);
@@ -306,6 +320,8 @@ public class SimulatorGUI
 		addToDirtyListener(seedTxt);
 		addToDirtyListener(timeSlider.TB);
 		addToDirtyListener(numberOfRuns);
+		addToDirtyListener(threadsTxt);
+		addToDirtyListener(bisectCk);
 		addToDirtyListener(goBtn);
 		addToDirtyListener(helpBtn);
 		
@@ -336,6 +352,7 @@ public class SimulatorGUI
 			{	
 				switch (formState) {
 				case RUNNING:
+					cancellation.cancel(); // the simulation stops at the end of its current batch of ticks
 					simThread.cancel(true);
 					while(!simThread.isDone());
 					changeFormState(FormState.SHOWRESULTS);
@@ -409,6 +426,8 @@ public class SimulatorGUI
 				{
 					pSlider.setEnabled(false);
 					numberOfRuns.setEnabled(true);
+					threadsTxt.setEnabled(true);
+					bisectCk.setEnabled(true);
 					//seedCk.setEnabled(false);
 					//seedCk.setSelected(true);
 				}
@@ -416,6 +435,8 @@ public class SimulatorGUI
 				{
 					pSlider.setEnabled(true);
 					numberOfRuns.setEnabled(false);
+					threadsTxt.setEnabled(false);
+					bisectCk.setEnabled(false);
 					//seedCk.setEnabled(true);
 				}
 				
@@ -460,13 +481,7 @@ public class SimulatorGUI
 			@Override
 			public void SuperDataOut(String data)
 			{
-				if(textSimulationSummary.getText().length()>250000)
-				{
-					//after x long then delete y of data off the start to keep the sim running fast.
-					textSimulationSummary.replaceRange("...Data truncated...", 0, 50000);
-				}
-				textSimulationSummary.append(data);
-				textSimulationSummary.setCaretPosition(textSimulationSummary.getDocument().getLength());
+				textSimulationSummary.append(data); // shown on the event dispatch thread at the next update, only the last lines are kept
 			}
 		});
 		
@@ -578,6 +593,7 @@ public class SimulatorGUI
 			{
 				if(formState == FormState.RUNNING)
 				{
+					cancellation.cancel(); // the simulation stops at the end of its current batch of ticks
 					simThread.cancel(true);
 					while(!simThread.isDone());
 				}
@@ -721,7 +737,7 @@ public class SimulatorGUI
 		if(pAutoCk.isSelected())
 		{ // SIMULATE MANY
 			//check all pertinent fields are valid
-			if(numberOfRuns.isNumberGood() && timeSlider.TB.isNumberGood() && (seedCk.isSelected() || seedTxt.isNumberGood()))
+			if(numberOfRuns.isNumberGood() && threadsTxt.isNumberGood() && timeSlider.TB.isNumberGood() && (seedCk.isSelected() || seedTxt.isNumberGood()))
 			{ //good inputs
 				if(!seedCk.isSelected()){utils.RandomGenerator.setSeed(Long.parseLong(seedTxt.getText()));}
 
@@ -732,10 +748,15 @@ public class SimulatorGUI
 					public Void doInBackground() {
 						int iNumberOfRuns = Integer.parseInt(numberOfRuns.getText());
 						Simulator sim = new Simulator();
-						sim.setNumTicks(Integer.parseInt(timeSlider.TB.getText()));
+						sim.setNumTicks(Long.parseLong(timeSlider.TB.getText()));
 						sim.setQueueType(((LevelComboItemType)levelCombobox.getSelectedItem()).getQueueType());
+						sim.setThreads(Integer.parseInt(threadsTxt.getText()));
+						if(bisectCk.isSelected()) {
+							sim.setSearchMode(SearchModeEnum.BISECTION);
+						}
 						sim.addSimulatorListener(simListener);
-						sim.setTicksToComplete((int)((Simulator.maxP-Simulator.minP)/Simulator.pInterval)*sim.getNumTicks()*iNumberOfRuns);
+						sim.setCancellationToken(cancellation);
+						sim.setTicksToComplete((long)((Simulator.maxP-Simulator.minP)/Simulator.pInterval)*sim.getNumTicks()*iNumberOfRuns);
 						//Debug.saveToFile(fileLocation);
 						startExecTime = System.currentTimeMillis();
 						
@@ -759,6 +780,7 @@ public class SimulatorGUI
 					}
 				}
 
+				cancellation = new CancellationToken();
 				simThread = new SimThread();
 				simThread.execute();
 
@@ -782,10 +804,11 @@ public class SimulatorGUI
 					public Void doInBackground()
 					{
 						Simulator sim = new Simulator();
-						sim.setNumTicks(Integer.parseInt(timeSlider.TB.getText()));
+						sim.setNumTicks(Long.parseLong(timeSlider.TB.getText()));
 						sim.setProbability(Double.parseDouble(pSlider.TB.getText()));
 						sim.setQueueType(((LevelComboItemType)levelCombobox.getSelectedItem()).getQueueType());
 						sim.addSimulatorListener(simListener);	
+						sim.setCancellationToken(cancellation);
 						sim.setTicksToComplete(sim.getNumTicks());
 						startExecTime = System.currentTimeMillis();
 						
@@ -807,6 +830,7 @@ public class SimulatorGUI
 					}
 				}
 
+				cancellation = new CancellationToken();
 				simThread = new SimThread();
 				simThread.execute();
 			}
@@ -815,50 +839,37 @@ public class SimulatorGUI
 		return true;
 	}
 
+	/**
+	 * Moves the progress bar on. Events can come from the simulation threads (several at once in a
+	 * parallel sweep), so the progress bar is only touched on the event dispatch thread.
+	 */
 	private SimulatorListener simListener = new SimulatorListener()
 	{
+		private final String[] aliveMarkers = {"|", "/", "-", "\\"};
+
 		@Override
 		public void progressTracker(double percent)
 		{
-			int per = (int)percent;
-			SimulationProgressPrBar.setValue(per);
+			final int per = (int)percent;
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					SimulationProgressPrBar.setValue(per);
+				}
+			});
 		}
 		
 		@Override
-		public boolean afterTick()
+		public void afterBatch()
 		{
-			if(lastTime+500 < System.currentTimeMillis())//if it's been more than half a second
-			{
-				lastTime = System.currentTimeMillis();
-				String aliveMarker = "";
-				switch (aliveMarkerTracker)
-				{
-				case 0:
-					aliveMarker = "|";
-					aliveMarkerTracker=1;	
-					break;
-				case 1:
-					aliveMarker = "/";
-					aliveMarkerTracker=2;	
-					break;
-				case 2:
-					aliveMarker = "-";
-					aliveMarkerTracker=3;	
-					break;
-				case 3:
-					aliveMarker = "\\";
-					aliveMarkerTracker=0;	
-					break;
-				}
-				if(simThread.isCancelled())
-				{
-					return true; // CANCEL!
+			// called every few ticks or tenth of a second, so just move the alive marker on
+			final String aliveMarker = aliveMarkers[aliveMarkerTracker.getAndIncrement() & 3];
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					SimulationProgressPrBar.setString(aliveMarker + " " + SimulationProgressPrBar.getValue() + "%");
 				}
-				
-				SimulationProgressPrBar.setString(aliveMarker + " " + SimulationProgressPrBar.getValue() + "%");
-				
-			}
-			return false; //no cancel request
+			});
 		}
 		
 		@Override
@@ -0,0 +1,262 @@
+package simulator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the Simulator's automatic (sweep) mode
+ * 
+ * @version 17/10/2026
+ */
+public class SimulatorTest {
+	private int timesToRun = 4;
+	private int ticksToRun = Simulator.ticksInAnHour * 6;
+
+	@Before
+	public void setUp() {
+		utils.Debug.setEnabled(false);
+	}
+
+	/**
+	 * Creates a simulator for a sweep, starting from seed 42
+	 * @param threads
+	 * @return Simulator
+	 */
+	private Simulator sweepSimulator(int threads) {
+		utils.RandomGenerator.setSeed(42);
+		Simulator sim = new Simulator();
+		sim.setNumTicks(ticksToRun);
+		sim.setQueueType(QueueTypeEnum.PRIORITY);
+		sim.setThreads(threads);
+		return sim;
+	}
+
+	/**
+	 * Runs a sweep with the given number of threads, starting from seed 42
+	 * @param threads
+	 * @return the average good P
+	 */
+	private double sweep(int threads) {
+		return sweepSimulator(threads).simulateAuto(timesToRun);
+	}
+
+	/**
+	 * The average good P must be exactly the same however many threads are used
+	 */
+	@Test
+	public void testSweepSameForAnyThreadCount() {
+		double sequential = sweep(1);
+
+		assertTrue(sequential > 0);
+		assertEquals(sequential, sweep(2), 0);
+		assertEquals(sequential, sweep(3), 0);
+	}
+
+	/**
+	 * The combined statistics of a sweep must be the same however many threads are used
+	 */
+	@Test
+	public void testTotalsSameForAnyThreadCount() {
+		Simulator sequential = sweepSimulator(1);
+		sequential.simulateAuto(timesToRun);
+		Simulator parallel = sweepSimulator(3);
+		parallel.simulateAuto(timesToRun);
+
+		assertEquals(sequential.getSimulationsRun(), sequential.getTotals().getRuns());
+		assertTrue(sequential.getTotals().getTotalLandings() > 0);
+		assertEquals(sequential.getTotals().getTotalLandings(), parallel.getTotals().getTotalLandings());
+		assertEquals(sequential.getTotals().getTotalWaitingTime(), parallel.getTotals().getTotalWaitingTime());
+		assertEquals(sequential.getTotals().getTotalCrashes(), parallel.getTotals().getTotalCrashes());
+		assertEquals(parallel.getTotals().getTotalLandings(), parallel.getTotals().getStats(0, "").getTotalLandings());
+	}
+
+	/**
+	 * The bisection search should give the same answer for any number of threads,
+	 * using fewer simulations than stepping through every value of P
+	 */
+	@Test
+	public void testBisectionSearch() {
+		Simulator linear = sweepSimulator(1);
+		linear.simulateAuto(timesToRun);
+
+		Simulator bisection = sweepSimulator(1);
+		bisection.setSearchMode(SearchModeEnum.BISECTION);
+		double sequential = bisection.simulateAuto(timesToRun);
+
+		Simulator parallel = sweepSimulator(2);
+		parallel.setSearchMode(SearchModeEnum.BISECTION);
+
+		assertTrue(sequential > 0);
+		assertEquals(sequential, parallel.simulateAuto(timesToRun), 0);
+		assertTrue(bisection.getSimulationsRun() < linear.getSimulationsRun());
+	}
+
+	/**
+	 * Stopping each run at its first crash should find the same good P, with fewer ticks run
+	 */
+	@Test
+	public void testEarlyExitSameGoodP() {
+		Simulator full = sweepSimulator(1);
+		double fullP = full.simulateAuto(timesToRun);
+
+		Simulator early = sweepSimulator(1);
+		early.setEarlyExit(new airport.EarlyExit(1, 0));
+		assertEquals(fullP, early.simulateAuto(timesToRun), 0);
+		assertEquals(full.getSimulationsRun(), early.getSimulationsRun());
+		assertTrue(early.getTotals().getTotalCrashes() < full.getTotals().getTotalCrashes());
+	}
+
+	/**
+	 * Running P in lanes should find the same good P whatever the number of threads
+	 */
+	@Test
+	public void testLanesSameForAnyThreadCount() {
+		Simulator single = sweepSimulator(1);
+		single.setLanes(4);
+		double singleP = single.simulateAuto(timesToRun);
+
+		Simulator threaded = sweepSimulator(3);
+		threaded.setLanes(4);
+		assertEquals(singleP, threaded.simulateAuto(timesToRun), 0);
+		assertEquals(single.getSimulationsRun(), threaded.getSimulationsRun());
+		assertTrue(singleP > 0);
+	}
+
+	/**
+	 * Runs a FIFO and a priority tower side by side at P 0.1, from seed 42
+	 * @return statistics of both towers
+	 */
+	private airport.PairedStats pairedRun() {
+		utils.RandomGenerator.setSeed(42);
+		Simulator sim = new Simulator();
+		sim.setNumTicks(ticksToRun);
+		sim.setProbability(0.1);
+		return sim.simulatePaired();
+	}
+
+	/**
+	 * A paired run gives one set of statistics per queue type, and the same pair again from the same seed
+	 */
+	@Test
+	public void testPairedRun() {
+		airport.PairedStats paired = pairedRun();
+		assertEquals("Waiting time (FIFO)", paired.getFifo().getQueueType());
+		assertEquals("Fuel priority", paired.getPriority().getQueueType());
+		assertEquals(paired.getPriority().getTotalCrashes() - paired.getFifo().getTotalCrashes(), paired.getCrashDifference());
+		assertTrue(paired.getFifo().getTotalLandings() > 0);
+
+		airport.PairedStats again = pairedRun();
+		assertEquals(paired.getFifo().getTotalWaitingTime(), again.getFifo().getTotalWaitingTime());
+		assertEquals(paired.getPriority().getTotalWaitingTime(), again.getPriority().getTotalWaitingTime());
+		assertEquals(paired.getLandingDifference(), again.getLandingDifference());
+	}
+
+	/**
+	 * Ticks inside a run are ints, so a run can't be longer than the clock can count
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyTicks() {
+		new Simulator().setNumTicks(utils.TickClock.MAX_TICKS + 1L);
+	}
+
+	/**
+	 * Fewer than one lane is refused rather than quietly run as one
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoLanes() {
+		new Simulator().setLanes(0);
+	}
+
+	/**
+	 * A run whose queues grow past the limit stops early, and counts as crashed
+	 */
+	@Test
+	public void testQueueLimit() {
+		utils.RandomGenerator.setSeed(42);
+		Simulator sim = new Simulator();
+		sim.setNumTicks(ticksToRun);
+		sim.setProbability(0.3);
+		sim.setEarlyExit(new airport.EarlyExit(0, 10));
+		final airport.ControlStats[] stats = new airport.ControlStats[1];
+		sim.addSimulatorListener(new CountingListener() {
+			@Override
+			public void afterSimulate(airport.ControlStats cs) {
+				stats[0] = cs;
+			}
+		});
+
+		assertTrue(sim.simulate() > 0);
+		assertEquals(airport.StopReasonEnum.DIVERGED, stats[0].getStopReason());
+		assertTrue(stats[0].getStopTick() < ticksToRun);
+	}
+
+	/**
+	 * Listener which counts its calls, and can cancel after a number of batches
+	 */
+	private static class CountingListener implements Simulator.SimulatorListener {
+		int batches = 0;
+		int simulations = 0;
+		double lastPercent = 0;
+		int cancelAfter = Integer.MAX_VALUE;
+		CancellationToken cancellation;
+
+		@Override
+		public void afterBatch() {
+			batches++;
+			if(batches == cancelAfter) {
+				cancellation.cancel();
+			}
+		}
+
+		@Override
+		public void afterSimulate(airport.ControlStats cs) {
+			simulations++;
+		}
+
+		@Override
+		public void progressTracker(double percent) {
+			lastPercent = percent;
+		}
+	}
+
+	/**
+	 * Listeners should be told about progress once per batch of ticks, not every tick
+	 */
+	@Test
+	public void testListenersNotifiedPerBatch() {
+		utils.RandomGenerator.setSeed(42);
+		Simulator sim = new Simulator();
+		sim.setNumTicks(ticksToRun);
+		sim.setTicksToComplete(ticksToRun);
+		sim.setNotifyInterval(Simulator.ticksInAnHour, Long.MAX_VALUE / 1000000L); // never by time
+		CountingListener listener = new CountingListener();
+		sim.addSimulatorListener(listener);
+
+		sim.simulate();
+		assertEquals(6, listener.batches);
+		assertEquals(1, listener.simulations);
+		assertEquals(100, listener.lastPercent, 1e-9);
+	}
+
+	/**
+	 * Cancelling the token stops the simulation at the end of the batch
+	 */
+	@Test
+	public void testCancel() {
+		utils.RandomGenerator.setSeed(42);
+		Simulator sim = new Simulator();
+		sim.setNumTicks(ticksToRun);
+		sim.setNotifyInterval(Simulator.ticksInAnHour, Long.MAX_VALUE / 1000000L);
+		CountingListener listener = new CountingListener();
+		listener.cancelAfter = 2;
+		listener.cancellation = sim.getCancellationToken();
+		sim.addSimulatorListener(listener);
+
+		assertEquals(-1, sim.simulate());
+		assertEquals(2, listener.batches);
+		assertEquals(0, listener.simulations);
+	}
+
+}
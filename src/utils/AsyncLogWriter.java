@@ -0,0 +1,247 @@
+package utils;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes Debug output on a background thread. Simulation threads hand their lines to a bounded,
+ * lock-free queue and carry on. The writer thread takes lines off in batches and writes each batch
+ * to the console, the listeners and the file in one go.
+ * 
+ * When the queue is full, DROP throws the line away, so printing never waits for the writer. Lines
+ * which are always printed (superPrintln) have a small reserve of places of their own past the
+ * capacity, so they are only dropped if that fills up too. Dropped lines are counted, and a note of
+ * how many is written as soon as the writer catches up. BLOCK waits for space instead, parked until
+ * the writer has written a batch.
+ * 
+ * @version 17/10/2026
+ */
+class AsyncLogWriter implements Runnable
+{
+	private static final int BATCH_SIZE = 256;
+	private static final long IDLE_PARK_NANOS = 10000000L; // 10ms, in case a wake up is missed
+	private static final long WAIT_MILLIS = 10; // longest wait for the writer before checking it is still alive
+	private static final int SUPER_RESERVE = 256; // places past the capacity only lines which are always printed can use
+
+	/**
+	 * A line waiting to be written
+	 */
+	private static class Line
+	{
+		final String text;
+		final boolean newLine;
+		final boolean superOutput;
+
+		Line(String text, boolean newLine, boolean superOutput)
+		{
+			this.text = text;
+			this.newLine = newLine;
+			this.superOutput = superOutput;
+		}
+	}
+
+	private final ConcurrentLinkedQueue<Line> queue = new ConcurrentLinkedQueue<Line>();
+	private final AtomicInteger size = new AtomicInteger(); // lines queued, kept separately as the queue's own size() is slow
+	private final int capacity;
+	private final LogOverflowEnum overflow;
+
+	private final AtomicLong queued = new AtomicLong(); // lines accepted so far
+	private volatile long written = 0; // lines written so far
+	private final AtomicLong dropped = new AtomicLong(); // debug lines dropped since the last note
+	private final AtomicLong droppedSuper = new AtomicLong(); // always printed lines dropped since the last note
+	private final Object progress = new Object(); // notified each time the writer has written a batch
+	private volatile boolean running = true;
+	private final Thread thread;
+
+	AsyncLogWriter(int capacity, LogOverflowEnum overflow)
+	{
+		this.capacity = capacity;
+		this.overflow = overflow;
+		thread = new Thread(this, "Debug writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Queues a line to be written. A place in the queue is reserved before the line is added, so the
+	 * queue never holds more than its capacity (plus the reserve for lines always printed), and the
+	 * writer won't stop whilst a place is reserved.
+	 * @param text
+	 * @param newLine True to end the line
+	 * @param superOutput True if the line is always printed
+	 * @return false if the writer has stopped, so the line must be written straight away instead
+	 */
+	boolean offer(String text, boolean newLine, boolean superOutput)
+	{
+		int limit = superOutput ? capacity + SUPER_RESERVE : capacity;
+		int current;
+		while(true)
+		{
+			current = size.get();
+			if(current < limit)
+			{
+				if(size.compareAndSet(current, current + 1))
+				{
+					break;
+				}
+				continue;
+			}
+			if(!running || !thread.isAlive())
+			{
+				return false; // nothing will make space
+			}
+			if(overflow == LogOverflowEnum.DROP)
+			{
+				(superOutput ? droppedSuper : dropped).incrementAndGet();
+				return true;
+			}
+			waitForBatch();
+		}
+
+		if(!running) // checked after reserving, so either the writer sees the place, or this sees it stopping
+		{
+			size.decrementAndGet();
+			return false;
+		}
+
+		queue.offer(new Line(text, newLine, superOutput));
+		queued.incrementAndGet();
+		if(current == 0)
+		{
+			LockSupport.unpark(thread); // queue was empty, so the writer may be asleep
+		}
+		return true;
+	}
+
+	/**
+	 * Waits until every line queued before calling has been written
+	 */
+	void flush()
+	{
+		long target = queued.get();
+		while(written < target && thread.isAlive())
+		{
+			waitForBatch();
+		}
+	}
+
+	/**
+	 * Wakes the writer and waits until it has written another batch, or a short while has passed
+	 */
+	private void waitForBatch()
+	{
+		long before = written;
+		synchronized(progress)
+		{
+			LockSupport.unpark(thread);
+			if(written == before)
+			{
+				try
+				{
+					progress.wait(WAIT_MILLIS);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes what is left and stops the writer thread
+	 */
+	void stop()
+	{
+		running = false;
+		LockSupport.unpark(thread);
+		try
+		{
+			thread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void run()
+	{
+		StringBuilder console = new StringBuilder();
+		StringBuilder listeners = new StringBuilder();
+
+		while(running || size.get() > 0)
+		{
+			writeDroppedNotes();
+
+			int count = 0;
+			boolean superOutput = false;
+			Line line;
+			while(count < BATCH_SIZE && (line = queue.poll()) != null)
+			{
+				if(count > 0 && line.superOutput != superOutput)
+				{
+					writeBatch(console, listeners, superOutput); // listeners are told which kind of output each batch is
+				}
+				superOutput = line.superOutput;
+				console.append(line.text);
+				listeners.append(line.text);
+				if(line.newLine)
+				{
+					console.append(System.lineSeparator());
+					listeners.append('\n');
+				}
+				count++;
+			}
+
+			if(count == 0)
+			{
+				LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				continue;
+			}
+
+			writeBatch(console, listeners, superOutput);
+			size.addAndGet(-count);
+			Debug.flushOutput();
+			synchronized(progress)
+			{
+				written += count; // only this thread writes it
+				progress.notifyAll();
+			}
+		}
+		writeDroppedNotes(); // anything dropped since the last batch
+		synchronized(progress)
+		{
+			progress.notifyAll();
+		}
+	}
+
+	/**
+	 * Writes a note of how many lines have been dropped since the last note, if any
+	 */
+	private void writeDroppedNotes()
+	{
+		long droppedLines = dropped.getAndSet(0);
+		if(droppedLines > 0)
+		{
+			String note = "[" + droppedLines + " debug lines dropped]";
+			Debug.writeBatch(note + System.lineSeparator(), note + "\n", false);
+		}
+		long droppedSuperLines = droppedSuper.getAndSet(0);
+		if(droppedSuperLines > 0)
+		{
+			String note = "[" + droppedSuperLines + " output lines dropped]";
+			Debug.writeBatch(note + System.lineSeparator(), note + "\n", true);
+		}
+	}
+
+	private void writeBatch(StringBuilder console, StringBuilder listeners, boolean superOutput)
+	{
+		Debug.writeBatch(console.toString(), listeners.toString(), superOutput);
+		console.setLength(0);
+		listeners.setLength(0);
+	}
+}
@@ -0,0 +1,104 @@
+package utils;
+
+/**
+ * RandomSource giving exactly the same numbers as java.util.Random (and so JavaRandomSource), but
+ * working out the generator's states a block at a time into an array. Each number is then read from
+ * the array, rather than going through Random's atomic compare and set.
+ * 
+ * @version 17/10/2026
+ */
+class BufferedJavaRandomSource implements RandomSource
+{
+	// constants of java.util.Random's linear congruential generator
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+	private static final double DOUBLE_UNIT = 0x1.0p-53; // 1 / 2^53
+
+	private long state; // state of the generator after the last one in the buffer
+	private final long[] states; // upcoming states, each one gives the bits for one call to next()
+	private int cursor; // next state to use
+
+	BufferedJavaRandomSource(long seed)
+	{
+		state = (seed ^ MULTIPLIER) & MASK; // same scrambling as Random(seed)
+		states = new long[1024];
+		cursor = states.length; // fill on first use
+	}
+
+	/**
+	 * Works out the next block of states in one go
+	 */
+	private void fill()
+	{
+		long s = state;
+		for(int i = 0; i < states.length; i++)
+		{
+			s = (s * MULTIPLIER + ADDEND) & MASK;
+			states[i] = s;
+		}
+		state = s;
+		cursor = 0;
+	}
+
+	/**
+	 * Same as Random.next(bits)
+	 */
+	private int next(int bits)
+	{
+		if(cursor == states.length)
+		{
+			fill();
+		}
+		return (int) (states[cursor++] >>> (48 - bits));
+	}
+
+	@Override
+	public double nextDouble()
+	{
+		return (((long) next(26) << 27) + next(27)) * DOUBLE_UNIT;
+	}
+
+	@Override
+	public int nextInt(int bound)
+	{
+		if(bound <= 0)
+		{
+			throw new IllegalArgumentException("bound must be positive");
+		}
+
+		int result = next(31);
+		int max = bound - 1;
+		if((bound & max) == 0)
+		{
+			return (int) ((bound * (long) result) >> 31); // power of two
+		}
+
+		for(int bits = result; bits - (result = bits % bound) + max < 0; bits = next(31));
+		return result;
+	}
+
+	@Override
+	public int nextInt()
+	{
+		return next(32);
+	}
+
+	@Override
+	public long nextLong()
+	{
+		return ((long) next(32) << 32) + next(32);
+	}
+
+	@Override
+	public boolean nextBoolean()
+	{
+		return next(1) != 0;
+	}
+
+	@Override
+	public RandomSource split()
+	{
+		return new BufferedJavaRandomSource(nextLong()); // same as JavaRandomSource
+	}
+}
@@ -0,0 +1,160 @@
+package utils;
+
+import java.util.ArrayList;
+
+/**
+ * Shares random numbers between several simulation runs (lanes) which are stepped through the same
+ * ticks together. Each lane gets its own RandomGenerator from newLane(), but the n-th number any lane
+ * takes from a stream on a given tick is the same for every lane, however many numbers the other lanes
+ * have taken. Lanes then only differ where their own state makes them take different numbers, which is
+ * known as common random numbers.
+ *
+ * Splitting a lane's generator gives a lane of the matching shared stream, so the first split of every
+ * lane shares one stream, the second split another, and so on. Every number is made from one shared
+ * double, so nextInt(bound) and the others use a single number each.
+ *
+ * Each number is a hash of its stream's seed (drawn from the master generator), the tick and its index
+ * in the tick, so nothing needs to be kept between lanes, whichever backend the master uses. The tick is
+ * shared though, so the lanes must all run on one thread.
+ *
+ * @version 17/10/2026
+ */
+public class CommonRandomNumbers
+{
+	private final SharedStream root;
+	private long tick = 0; // draws are shared within a tick, and drawn afresh the next
+
+	/**
+	 * @param master Generator the shared numbers are drawn from. Moved on by one split.
+	 */
+	public CommonRandomNumbers(RandomGenerator master)
+	{
+		root = new SharedStream(master.split());
+	}
+
+	/**
+	 * Creates the generator for a new lane
+	 * @return generator sharing its numbers with every other lane
+	 */
+	public RandomGenerator newLane()
+	{
+		return new RandomGenerator(new LaneSource(root));
+	}
+
+	/**
+	 * Moves every lane on to the next tick. Lanes start again from the first number of each stream.
+	 */
+	public void nextTick()
+	{
+		tick++;
+	}
+
+	public long getTick()
+	{
+		return tick;
+	}
+
+	/**
+	 * One shared stream. Its numbers are worked out from the stream's seed, the tick and the index, so
+	 * every lane gets the same number however many the other lanes have taken, this tick or before.
+	 */
+	private class SharedStream
+	{
+		private final long seed;
+		private final RandomGenerator splitter; // seeds of the child streams
+		private final ArrayList<SharedStream> children = new ArrayList<SharedStream>();
+
+		SharedStream(RandomGenerator generator)
+		{
+			seed = generator.nextLong();
+			splitter = generator.split();
+		}
+
+		/**
+		 * @param index Number of numbers taken already this tick
+		 * @return the shared number at the index, in [0, 1)
+		 */
+		double get(int index)
+		{
+			long z = seed + tick * 0x9E3779B97F4A7C15L + index * 0xD1B54A32D192ED03L;
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L; // SplitMix64's mixing steps
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			z = z ^ (z >>> 31);
+			return (z >>> 11) * 0x1.0p-53;
+		}
+
+		/**
+		 * @param index
+		 * @return the index-th stream split from this one, made the first time any lane asks for it
+		 */
+		SharedStream child(int index)
+		{
+			while(children.size() <= index)
+			{
+				children.add(new SharedStream(splitter.split()));
+			}
+			return children.get(index);
+		}
+	}
+
+	/**
+	 * One lane's place in a shared stream
+	 */
+	private class LaneSource implements RandomSource
+	{
+		private final SharedStream stream;
+		private long laneTick = -1;
+		private int taken; // numbers taken on laneTick
+		private int splits = 0;
+
+		LaneSource(SharedStream stream)
+		{
+			this.stream = stream;
+		}
+
+		@Override
+		public double nextDouble()
+		{
+			if(laneTick != tick)
+			{
+				laneTick = tick;
+				taken = 0;
+			}
+			return stream.get(taken++);
+		}
+
+		@Override
+		public int nextInt(int bound)
+		{
+			if(bound <= 0)
+			{
+				throw new IllegalArgumentException("bound must be positive");
+			}
+			return (int) (nextDouble() * bound);
+		}
+
+		@Override
+		public int nextInt()
+		{
+			return (int) (long) (nextDouble() * 4294967296.0); // 2^32, wrapped into an int
+		}
+
+		@Override
+		public long nextLong()
+		{
+			return (long) ((nextDouble() - 0.5) * 18446744073709551616.0); // 2^64, centred on 0
+		}
+
+		@Override
+		public boolean nextBoolean()
+		{
+			return nextDouble() < 0.5;
+		}
+
+		@Override
+		public RandomSource split()
+		{
+			return new LaneSource(stream.child(splits++));
+		}
+	}
+}
@@ -1,17 +1,28 @@
 package utils;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
  * 
  * @author Jason Harrison
  * Provides a universal output stream which adds logging options and allows output to be consumed by event listeners
+ * Safe to call from several simulation threads at once. Lines from different threads may interleave, but are never split.
+ * 
+ * Lines can be given a LogLevelEnum through the log methods, which only build the line if its level is shown.
+ * Turning debug output on shows every level.
+ * 
+ * Finding the calling class means looking through the stack, so code which prints a lot should log through
+ * a sink from forOwner(), which already knows its class. Such a sink can also stamp lines with the tick
+ * of a simulation instead of the time.
+ * 
+ * After startAsync(), output is written by a background thread in batches, so printing never waits for the console or disk.
  */
 public class Debug
 {
@@ -24,7 +35,7 @@ public class Debug
 	/**
 	 * list of event listeners
 	 */
-	static ArrayList<DataOutListener> listeners = new ArrayList<DataOutListener>();
+	static CopyOnWriteArrayList<DataOutListener> listeners = new CopyOnWriteArrayList<DataOutListener>();
 	
 	/**
 	 * 
@@ -33,43 +44,242 @@ public class Debug
     public static void addDataOutListener(DataOutListener dataOutListener) {listeners.add(dataOutListener);}
 
 	/**
-	 * enables/disables print and println methods 
+	 * level of lines shown. OFF disables print and println methods 
 	 */
-    private static boolean enabled = false;
-    
-    /**
-     * Class which called the debug method
-     */
-	private static String callingClass = "";
+    private static volatile LogLevelEnum level = LogLevelEnum.OFF;
 	
 	/**
-	 * tracks how many sub functions have been called to track how far up the call stack to trace to get the calling object.
+	 * whether lines from a sink with a clock are stamped with its tick rather than the time
 	 */
-	private static int moveUpStack = 0;
-	
+	private static volatile boolean tickTimestamps = false;
+
+	/**
+	 * background writer, or null to write output on the thread which prints it
+	 */
+	private static volatile AsyncLogWriter writer = null;
+
+	private static boolean shutdownHookAdded = false;
+
+	/**
+	 * Most lines waiting for the background writer, unless told otherwise
+	 */
+	public static final int DEFAULT_QUEUE_SIZE = 8192;
+
 	/**
 	 * file output stream
 	 */
-	private static PrintStream printStreamFile = null;
+	private static volatile PrintStream printStreamFile = null;
+	
+	/**
+	 * log sink which writes through to the static Debug output
+	 */
+	private static final LogSink sink = new LogSink() {
+		@Override
+		public boolean isEnabled(LogLevelEnum lineLevel) {
+			return Debug.isEnabled(lineLevel);
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, String message) {
+			Debug.log(lineLevel, message);
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, String format, Object arg) {
+			Debug.log(lineLevel, format, arg);
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, String format, int arg) {
+			Debug.log(lineLevel, format, arg);
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, MessageSupplier message) {
+			Debug.log(lineLevel, message);
+		}
+
+		@Override
+		public LogSink forOwner(Class<?> owner, TickClock clock) {
+			return new OwnerSink(owner, clock);
+		}
+	};
+
+	/**
+	 * Sink for the lines of one object. Puts the owner's class name in front of each line, so there's no
+	 * need to look through the stack for the calling class.
+	 */
+	private static class OwnerSink implements LogSink {
+		private final String prefix;
+		private final TickClock clock;
+
+		OwnerSink(Class<?> owner, TickClock clock) {
+			this.prefix = owner.getName() + ": ";
+			this.clock = clock;
+		}
+
+		@Override
+		public boolean isEnabled(LogLevelEnum lineLevel) {
+			return level.shows(lineLevel);
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, String message) {
+			if (level.shows(lineLevel)) {
+				write(message);
+			}
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, String format, Object arg) {
+			if (level.shows(lineLevel)) {
+				write(String.format(format, arg));
+			}
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, String format, int arg) {
+			if (level.shows(lineLevel)) {
+				write(String.format(format, arg));
+			}
+		}
+
+		@Override
+		public void log(LogLevelEnum lineLevel, MessageSupplier message) {
+			if (level.shows(lineLevel)) {
+				write(message.get());
+			}
+		}
+
+		@Override
+		public LogSink forOwner(Class<?> owner, TickClock clock) {
+			return new OwnerSink(owner, clock);
+		}
+
+		private void write(String message) {
+			String stamp = (tickTimestamps && clock != null) ? "tick " + clock.getTick() + ": " : System.currentTimeMillis() + "ms: ";
+			println(stamp + prefix + message, false, false);
+		}
+	}
 
 	public Debug() {}
 
+	/**
+	 * Gets a log sink which writes through to the Debug output (console, listeners and file)
+	 * @return sink
+	 */
+	public static LogSink getSink()
+	{
+		return sink;
+	}
+
 	/**
 	 * 
 	 * @return enabled 
 	 */
 	public static boolean isEnabled()
 	{
-		return enabled;
+		return level != LogLevelEnum.OFF;
 	}
 
 	/**
-	 * 
+	 * Turns all debug output on or off
 	 * @param enabled
 	 */
 	public static void setEnabled(boolean enabled)
 	{
-		Debug.enabled = enabled;
+		Debug.level = enabled ? LogLevelEnum.TRACE : LogLevelEnum.OFF;
+	}
+
+	/**
+	 * Sets whether lines from a sink with a clock are stamped with the simulation's tick rather than the time
+	 * @param tickTimestamps
+	 */
+	public static void setTickTimestamps(boolean tickTimestamps)
+	{
+		Debug.tickTimestamps = tickTimestamps;
+	}
+
+	/**
+	 * 
+	 * @return level of lines shown
+	 */
+	public static LogLevelEnum getLevel()
+	{
+		return level;
+	}
+
+	/**
+	 * Sets the level of lines shown
+	 * @param level
+	 */
+	public static void setLevel(LogLevelEnum level)
+	{
+		Debug.level = level;
+	}
+
+	/**
+	 * 
+	 * @param lineLevel
+	 * @return true if lines of the given level are shown
+	 */
+	public static boolean isEnabled(LogLevelEnum lineLevel)
+	{
+		return level.shows(lineLevel);
+	}
+
+	/**
+	 * Prints string and carriage return with time stamp and calling class, if the level is shown
+	 * @param lineLevel
+	 * @param str
+	 */
+	public static void log(LogLevelEnum lineLevel, String str)
+	{
+		if (level.shows(lineLevel))
+		{
+			println(str);
+		}
+	}
+
+	/**
+	 * Prints a formatted line with time stamp and calling class. Only formats it if the level is shown.
+	 * @param lineLevel
+	 * @param format Format with one %s
+	 * @param arg
+	 */
+	public static void log(LogLevelEnum lineLevel, String format, Object arg)
+	{
+		if (level.shows(lineLevel))
+		{
+			println(String.format(format, arg));
+		}
+	}
+
+	/**
+	 * Prints a formatted line with time stamp and calling class. Only formats it if the level is shown.
+	 * @param lineLevel
+	 * @param format Format with one %d
+	 * @param arg
+	 */
+	public static void log(LogLevelEnum lineLevel, String format, int arg)
+	{
+		if (level.shows(lineLevel))
+		{
+			println(String.format(format, arg));
+		}
+	}
+
+	/**
+	 * Prints a line with time stamp and calling class. Only asks for the line if the level is shown.
+	 * @param lineLevel
+	 * @param message
+	 */
+	public static void log(LogLevelEnum lineLevel, LogSink.MessageSupplier message)
+	{
+		if (level.shows(lineLevel))
+		{
+			println(message.get());
+		}
 	}
 
 	/**
@@ -78,7 +288,6 @@ public class Debug
 	 */
 	public static void print(String str)
 	{
-		moveUpStack++;
 		print(str, false);
 	}
 
@@ -88,7 +297,6 @@ public class Debug
 	 */
 	public static void println(String str)
 	{
-		moveUpStack++;
 		println(str, true);
 	}
 
@@ -99,7 +307,6 @@ public class Debug
 	 */
 	public static void print(String str, boolean prependCallingClass)
 	{
-		moveUpStack++;
 		print(str,prependCallingClass, false);
 	}
 
@@ -110,7 +317,6 @@ public class Debug
 	 */
 	public static void println(String str, boolean prependCallingClass)
 	{
-		moveUpStack++;
 		println(str, prependCallingClass, true);
 	}
 
@@ -122,19 +328,12 @@ public class Debug
 	 */
 	public static void print(String str, boolean prependCallingClass, boolean prependTimestamp)
 	{
-		if (enabled)
+		if (level != LogLevelEnum.OFF)
 		{
-			moveUpStack++;
 			if (prependCallingClass){str = prependCallingClass(str);}
 			if (prependTimestamp){str = prependTimeStamp(str);}
-			System.out.print(str);
-			sendToDataOutListeners(str);
-
-			if(printStreamFile != null) {
-				printStreamFile.print(str);
-			}
+			write(str, false, false);
 		}
-		moveUpStack=0;
 	}
 
 	/**
@@ -145,19 +344,12 @@ public class Debug
 	 */
 	public static void println(String str, boolean prependCallingClass, boolean prependTimestamp)
 	{
-		if (enabled)
+		if (level != LogLevelEnum.OFF)
 		{
-			moveUpStack++;
 			if (prependCallingClass){str = prependCallingClass(str);}
 			if (prependTimestamp){str = prependTimeStamp(str);}
-			System.out.println(str);
-			sendToDataOutListeners(str+"\n");
-			
-			if(printStreamFile != null) {
-				printStreamFile.println(str);
-			}
+			write(str, true, false);
 		}
-		moveUpStack=0;
 	}
 	
 	/**
@@ -165,14 +357,7 @@ public class Debug
 	 * @param str
 	 */
 	public static void superPrintln(String str) {
-			moveUpStack++;
-			System.out.println(str);
-			sendToSuperDataOutListeners(str+"\n");
-			
-			if(printStreamFile != null) {
-				printStreamFile.println(str);
-			}
-		moveUpStack=0;
+		write(str, true, true);
 	}
 
 	/**
@@ -180,14 +365,135 @@ public class Debug
 	 * @param str
 	 */
 	public static void superPrint(String str) {
-		moveUpStack++;
-		System.out.print(str);
-		sendToSuperDataOutListeners(str);
-		
-		if(printStreamFile != null) {
-			printStreamFile.print(str);
-		}
-		moveUpStack=0;
+		write(str, false, true);
+	}
+
+	/**
+	 * Sends output to the console, listeners and file, or queues it for the background writer if there is one
+	 * @param str
+	 * @param newLine True to end the line
+	 * @param superOutput True if always printed
+	 */
+	private static void write(String str, boolean newLine, boolean superOutput)
+	{
+		AsyncLogWriter asyncWriter = writer; // read once, may be stopped by another thread
+		if(asyncWriter != null && asyncWriter.offer(str, newLine, superOutput))
+		{
+			return;
+		}
+
+		PrintStream file = printStreamFile; // read once, another thread may close it
+		String listenerData = str;
+		if(newLine)
+		{
+			System.out.println(str);
+			if(file != null) {
+				file.println(str);
+			}
+			listenerData = str + "\n";
+		}
+		else
+		{
+			System.out.print(str);
+			if(file != null) {
+				file.print(str);
+			}
+		}
+
+		if(superOutput)
+		{
+			sendToSuperDataOutListeners(listenerData);
+		}
+		else
+		{
+			sendToDataOutListeners(listenerData);
+		}
+	}
+
+	/**
+	 * Writes a batch of lines from the background writer
+	 * @param console Lines for the console and file
+	 * @param listenerData The same lines, ended with \n, for the listeners
+	 * @param superOutput True if always printed
+	 */
+	static void writeBatch(String console, String listenerData, boolean superOutput)
+	{
+		System.out.print(console);
+		if(superOutput)
+		{
+			sendToSuperDataOutListeners(listenerData);
+		}
+		else
+		{
+			sendToDataOutListeners(listenerData);
+		}
+
+		PrintStream file = printStreamFile;
+		if(file != null) {
+			file.print(console);
+		}
+	}
+
+	/**
+	 * Pushes out anything buffered by the console and file streams
+	 */
+	static void flushOutput()
+	{
+		System.out.flush();
+		PrintStream file = printStreamFile;
+		if(file != null) {
+			file.flush();
+		}
+	}
+
+	/**
+	 * From now on, hands output to a background thread to write, so the threads printing it never wait for the
+	 * console or the disk. Output is still written in the order it was printed.
+	 * @param queueSize Most lines waiting to be written at once
+	 * @param overflow What to do with a debug line when that many are waiting
+	 */
+	public static synchronized void startAsync(int queueSize, LogOverflowEnum overflow)
+	{
+		stopAsync();
+		writer = new AsyncLogWriter(queueSize, overflow);
+
+		if(!shutdownHookAdded)
+		{
+			// write whatever is still queued before the program exits
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					stopAsync();
+				}
+			}));
+			shutdownHookAdded = true;
+		}
+	}
+
+	/**
+	 * Writes any queued output and goes back to writing output on the thread which prints it
+	 */
+	public static synchronized void stopAsync()
+	{
+		AsyncLogWriter asyncWriter = writer;
+		if(asyncWriter != null)
+		{
+			writer = null;
+			asyncWriter.stop();
+		}
+	}
+
+	/**
+	 * Waits until everything printed so far has been written
+	 */
+	public static void flush()
+	{
+		AsyncLogWriter asyncWriter = writer;
+		if(asyncWriter != null)
+		{
+			asyncWriter.flush();
+		}
+		flushOutput();
 	}
 	
 	/**
@@ -221,7 +527,8 @@ public class Debug
 	public static void saveToFile(String fileLocation) {
 		File newFile = new File(fileLocation);		
 		try {
-			OutputStream outputStream = new FileOutputStream(newFile);
+			OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(newFile));
+			flush(); // earlier output shouldn't end up in the file
 			printStreamFile = new PrintStream(outputStream);
 		} catch (FileNotFoundException e) {
 			System.out.println("ERROR: Could not save to file. Do you have permission?");
@@ -234,6 +541,7 @@ public class Debug
 	 */
 	public static void resetSaveToFile()
 	{
+		flush(); // queued output still belongs in the file
 		if(printStreamFile != null)
 		{
 			printStreamFile.flush();
@@ -254,14 +562,21 @@ public class Debug
 	}
 
 	/**
-	 * Add calling class to original message
+	 * Add calling class to original message. Has to fill in the whole stack trace, so is slow compared to
+	 * logging through a sink from forOwner().
 	 * @param str The original message
 	 * @return Message with calling class appended
 	 */
 	private static String prependCallingClass(String str)
 	{
-		// getStackTrace()[1] = the method which called this method
-		callingClass = new Exception().getStackTrace()[1 + moveUpStack].getClassName();
+		// skip over the Debug methods (and the sink) to find the method which called into Debug
+		String callingClass = "";
+		for(StackTraceElement element : new Exception().getStackTrace()) {
+			if(!element.getClassName().startsWith(Debug.class.getName())) {
+				callingClass = element.getClassName();
+				break;
+			}
+		}
 		return callingClass + ": " + str;
 	}
 
@@ -33,4 +33,152 @@ public class DebugTest {
 		assertTrue(existingFile.exists());
 	}
 
+	/**
+	 * Ensures that lines are only built for the levels being shown
+	 */
+	@Test
+	public void logLevels() {
+		final int[] built = {0};
+		LogSink.MessageSupplier message = new LogSink.MessageSupplier() {
+			@Override
+			public String get() {
+				built[0]++;
+				return "built";
+			}
+		};
+
+		utils.Debug.setLevel(LogLevelEnum.DEBUG);
+		assertTrue(utils.Debug.isEnabled(LogLevelEnum.INFO));
+		assertTrue(utils.Debug.isEnabled(LogLevelEnum.DEBUG));
+		assertFalse(utils.Debug.isEnabled(LogLevelEnum.TRACE));
+		utils.Debug.getSink().log(LogLevelEnum.TRACE, message);
+		assertEquals(0, built[0]);
+		utils.Debug.getSink().log(LogLevelEnum.DEBUG, message);
+		assertEquals(1, built[0]);
+
+		utils.Debug.setEnabled(false);
+		assertFalse(utils.Debug.isEnabled(LogLevelEnum.INFO));
+		utils.Debug.getSink().log(LogLevelEnum.INFO, message);
+		assertEquals(1, built[0]);
+	}
+
+	/**
+	 * Ensures that a sink for an owner names the owner and can stamp lines with the simulation's tick
+	 */
+	@Test
+	public void ownerSink() {
+		final StringBuilder output = new StringBuilder();
+		utils.Debug.addDataOutListener(new Debug.DataOutListener() {
+			@Override
+			public void dataOut(String data) {
+				output.append(data);
+			}
+
+			@Override
+			public void SuperDataOut(String data) {}
+		});
+
+		TickClock clock = new TickClock();
+		clock.advance(7);
+		LogSink sink = utils.Debug.getSink().forOwner(DebugTest.class, clock);
+
+		utils.Debug.setTickTimestamps(true);
+		try {
+			sink.log(LogLevelEnum.INFO, "hello %d", 3);
+		} finally {
+			utils.Debug.setTickTimestamps(false);
+		}
+		assertEquals("tick 7: utils.DebugTest: hello 3\n", output.toString());
+	}
+
+	/**
+	 * Ensures that output written in the background comes out complete and in order
+	 */
+	@Test
+	public void asyncOutput() {
+		final StringBuilder output = new StringBuilder();
+		final StringBuilder superOutput = new StringBuilder();
+		utils.Debug.addDataOutListener(new Debug.DataOutListener() {
+			@Override
+			public void dataOut(String data) {
+				output.append(data);
+			}
+
+			@Override
+			public void SuperDataOut(String data) {
+				superOutput.append(data);
+			}
+		});
+
+		StringBuilder expected = new StringBuilder();
+		utils.Debug.startAsync(16, LogOverflowEnum.BLOCK); // small, so printing has to wait for space
+		try {
+			for(int i = 0; i < 1000; i++) {
+				utils.Debug.print("line " + i + "\n", false, false);
+				expected.append("line " + i + "\n");
+			}
+			utils.Debug.superPrintln("done");
+			utils.Debug.flush();
+		} finally {
+			utils.Debug.stopAsync();
+		}
+
+		assertEquals(expected.toString(), output.toString());
+		assertEquals("done\n", superOutput.toString());
+	}
+
+	/**
+	 * Dropping never waits for the writer, and every line always printed is either written or counted in the note
+	 */
+	@Test
+	public void dropOutput() {
+		final StringBuilder superOutput = new StringBuilder();
+		utils.Debug.addDataOutListener(new Debug.DataOutListener() {
+			@Override
+			public void dataOut(String data) {
+			}
+
+			@Override
+			public void SuperDataOut(String data) {
+				superOutput.append(data);
+			}
+		});
+
+		utils.Debug.startAsync(1, LogOverflowEnum.DROP);
+		try {
+			for(int i = 0; i < 5000; i++) {
+				utils.Debug.print("debug " + i, true, false);
+				utils.Debug.superPrintln("result " + i);
+			}
+			utils.Debug.flush();
+		} finally {
+			utils.Debug.stopAsync();
+		}
+
+		int written = 0;
+		long dropped = 0;
+		for(String line : superOutput.toString().split("\n")) {
+			if(line.startsWith("result ")) {
+				written++;
+			} else if(line.endsWith(" output lines dropped]")) {
+				dropped += Long.parseLong(line.substring(1, line.indexOf(' ')));
+			}
+		}
+		assertEquals(5000, written + dropped);
+	}
+
+	/**
+	 * A writer which has stopped turns lines away, so they're written straight away rather than lost,
+	 * even if its queue is full
+	 */
+	@Test
+	public void stoppedWriterRejects() {
+		AsyncLogWriter writer = new AsyncLogWriter(1, LogOverflowEnum.BLOCK);
+		assertTrue(writer.offer("queued", true, false));
+		writer.stop();
+
+		assertFalse(writer.offer("after stop", true, false));
+		assertFalse(writer.offer("after stop", true, true));
+	}
+
 }
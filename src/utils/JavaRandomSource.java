@@ -0,0 +1,58 @@
+package utils;
+
+import java.util.Random;
+
+/**
+ * RandomSource using the java.util.Random sequence. Every call goes through an atomic compare and set.
+ * 
+ * @version 17/10/2026
+ */
+class JavaRandomSource implements RandomSource
+{
+	private final Random random;
+
+	JavaRandomSource(long seed)
+	{
+		random = new Random(seed);
+	}
+
+	@Override
+	public double nextDouble()
+	{
+		return random.nextDouble();
+	}
+
+	@Override
+	public int nextInt(int bound)
+	{
+		return random.nextInt(bound);
+	}
+
+	@Override
+	public int nextInt()
+	{
+		return random.nextInt();
+	}
+
+	@Override
+	public long nextLong()
+	{
+		return random.nextLong();
+	}
+
+	@Override
+	public boolean nextBoolean()
+	{
+		return random.nextBoolean();
+	}
+
+	/**
+	 * Seeds a new Random from this one. Random can't jump ahead, so the streams aren't guaranteed
+	 * not to overlap, but for the lengths of stream a simulation uses it is very unlikely.
+	 */
+	@Override
+	public RandomSource split()
+	{
+		return new JavaRandomSource(random.nextLong());
+	}
+}
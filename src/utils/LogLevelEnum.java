@@ -0,0 +1,28 @@
+package utils;
+
+/**
+ * How much debug output to show. Each level shows its own lines and those of the levels above it.
+ * 
+ * OFF shows nothing.
+ * INFO shows what a simulation is doing and when aircraft crash.
+ * DEBUG also shows every landing, take off and repair.
+ * TRACE also shows every aircraft spawned and every tick the runway is busy.
+ * 
+ * @version 17/10/2026
+ */
+public enum LogLevelEnum
+{
+	OFF,
+	INFO,
+	DEBUG,
+	TRACE;
+
+	/**
+	 * @param level Level of a line
+	 * @return true if a line of the given level is shown when this level is set
+	 */
+	public boolean shows(LogLevelEnum level)
+	{
+		return level.ordinal() <= ordinal();
+	}
+}
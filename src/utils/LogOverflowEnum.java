@@ -0,0 +1,17 @@
+package utils;
+
+/**
+ * What to do with a debug line when the queue of lines waiting to be written is full
+ * 
+ * DROP throws the line away, and a note of how many were dropped is written instead, so printing
+ * never waits for the console or disk. Lines which are always printed (superPrintln) have a small
+ * reserve of extra places, so are only dropped if the output falls far behind.
+ * BLOCK waits for space, so no output is lost, but printing then waits whenever the writer can't keep up.
+ * 
+ * @version 17/10/2026
+ */
+public enum LogOverflowEnum
+{
+	BLOCK,
+	DROP
+}
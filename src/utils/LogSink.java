@@ -0,0 +1,68 @@
+package utils;
+
+/**
+ * Destination for the debug output of one simulation run. Each run can be given its own sink,
+ * so runs happening at the same time don't have to share one.
+ * 
+ * Lines are given a LogLevelEnum. A line whose level isn't shown is dropped before its message
+ * is built, so callers should pass the parts of a message rather than joining them first. That way
+ * a disabled line only costs the level check.
+ * 
+ * @version 17/10/2026
+ */
+public interface LogSink
+{
+	/**
+	 * @param level
+	 * @return true if lines of the given level are output anywhere
+	 */
+	public boolean isEnabled(LogLevelEnum level);
+
+	/**
+	 * Prints a line with time stamp and calling class
+	 * @param level
+	 * @param message
+	 */
+	public void log(LogLevelEnum level, String message);
+
+	/**
+	 * Prints a line with time stamp and calling class, built with String.format only if the level is shown
+	 * @param level
+	 * @param format Format with one %s
+	 * @param arg Value for the format
+	 */
+	public void log(LogLevelEnum level, String format, Object arg);
+
+	/**
+	 * Prints a line with time stamp and calling class, built with String.format only if the level is shown
+	 * @param level
+	 * @param format Format with one %d
+	 * @param arg Value for the format, taken as an int so it isn't boxed
+	 */
+	public void log(LogLevelEnum level, String format, int arg);
+
+	/**
+	 * Prints a line with time stamp and calling class, asking the supplier for it only if the level is shown
+	 * @param level
+	 * @param message
+	 */
+	public void log(LogLevelEnum level, MessageSupplier message);
+
+	/**
+	 * Gets a sink for one object's lines, going to the same place as this one. Lines are given the
+	 * owner's class name, rather than looking up the calling class, and can be timestamped with the
+	 * tick of a simulation clock.
+	 * @param owner Class to name on each line
+	 * @param clock Clock to take the tick from, or null to always use the time
+	 * @return sink for the owner
+	 */
+	public LogSink forOwner(Class<?> owner, TickClock clock);
+
+	/**
+	 * Builds a message which is costly to put together
+	 */
+	public interface MessageSupplier
+	{
+		public String get();
+	}
+}
@@ -0,0 +1,48 @@
+package utils;
+
+/**
+ * Used to identify which random number generator a RandomGenerator uses
+ * 
+ * JAVA uses the java.util.Random sequence. The simulation draws from it differently to versions before
+ * the random number generator was split up, so results for a given seed differ from theirs.
+ * SPLITTABLE uses java.util.SplittableRandom.
+ * XOROSHIRO uses xoroshiro128+, the fastest of the three.
+ * 
+ * @version 17/10/2026
+ */
+public enum RandomBackendEnum
+{
+	JAVA
+	{
+		@Override
+		RandomSource create(long seed, boolean buffered)
+		{
+			return buffered ? new BufferedJavaRandomSource(seed) : new JavaRandomSource(seed);
+		}
+	},
+	SPLITTABLE
+	{
+		@Override
+		RandomSource create(long seed, boolean buffered)
+		{
+			return new SplittableRandomSource(seed); // can't be buffered, as it mixes its state differently for each type of number
+		}
+	},
+	XOROSHIRO
+	{
+		@Override
+		RandomSource create(long seed, boolean buffered)
+		{
+			return new XoroshiroRandomSource(seed, buffered);
+		}
+	};
+
+	/**
+	 * Creates a stream of this type
+	 * @param seed
+	 * @param buffered True to work numbers out a block at a time, where the type supports it.
+	 *        Gives the same numbers either way.
+	 * @return RandomSource starting from the seed
+	 */
+	abstract RandomSource create(long seed, boolean buffered);
+}
@@ -1,40 +1,148 @@
 package utils;
 
-import java.util.Random;
-
 /**
  * A random number generator, using a consistent approach throughout. Intended to be used
  * by multiple classes, each would therefore be using a set seed.
  * 
+ * The static methods work on a single shared generator (used by the command line and GUI to
+ * set up a seed). Each simulation run can also own its own instance, so that several runs
+ * can take place at the same time without sharing a random stream.
+ *
+ * The numbers come from a RandomSource, chosen by RandomBackendEnum. A generator can be split into
+ * independent generators of the same kind, so every run of a sweep can be given its own stream.
+ * A buffered generator works its numbers out a block at a time, but gives exactly the same numbers.
+ *
  * @author Jason Harrison
  * @version v1.01 01/05/2014
  */
 public class RandomGenerator
 {
+	/**
+	 * Generator behind the static methods
+	 */
+	private static final RandomGenerator shared = new RandomGenerator();
+
+	/**
+	 * Stream used before a seed is set. Throws on every call, so the other methods don't need to check.
+	 */
+	private static final RandomSource UNSEEDED = new RandomSource()
+	{
+		@Override
+		public double nextDouble() { throw new SeedNotSetException(); }
+
+		@Override
+		public int nextInt(int bound) { throw new SeedNotSetException(); }
+
+		@Override
+		public int nextInt() { throw new SeedNotSetException(); }
+
+		@Override
+		public long nextLong() { throw new SeedNotSetException(); }
+
+		@Override
+		public boolean nextBoolean() { throw new SeedNotSetException(); }
+
+		@Override
+		public RandomSource split() { throw new SeedNotSetException(); }
+	};
+
 	/**
 	 * Random number generator
 	 */
-	private static Random random;
+	private RandomSource random = UNSEEDED;
+	
+	/**
+	 * Type of generator used when seeding
+	 */
+	private RandomBackendEnum backend = RandomBackendEnum.JAVA;
+
+	/**
+	 * Whether numbers are worked out a block at a time
+	 */
+	private boolean buffered = false;
 	
 	/**
 	 * seed to use for number generation
 	 */
-	private static long seed;
+	private long seed;
 	
 	/**
 	 * indicates whether the seed has already been set or not
 	 */
-	private static boolean isSeedSet = false;
+	private boolean isSeedSet = false;
 	
 	public RandomGenerator(){}
 	
+	/**
+	 * Creates a generator with its own random stream, starting from the given seed
+	 * @param seed
+	 */
+	public RandomGenerator(long seed)
+	{
+		this(seed, RandomBackendEnum.JAVA);
+	}
+
+	/**
+	 * Creates a generator of the given type with its own random stream, starting from the given seed
+	 * @param seed
+	 * @param backend Type of generator
+	 */
+	public RandomGenerator(long seed, RandomBackendEnum backend)
+	{
+		this(seed, backend, false);
+	}
+
+	/**
+	 * Creates a generator of the given type with its own random stream, starting from the given seed
+	 * @param seed
+	 * @param backend Type of generator
+	 * @param buffered True to work numbers out a block at a time
+	 */
+	public RandomGenerator(long seed, RandomBackendEnum backend, boolean buffered)
+	{
+		this.backend = backend;
+		this.buffered = buffered;
+		reseed(seed);
+	}
+
+	/**
+	 * Creates a generator which takes its numbers from the given source, such as one made by
+	 * CommonRandomNumbers. withSeed() gives a JAVA generator, as the source can't be started again.
+	 * @param random
+	 */
+	public RandomGenerator(RandomSource random)
+	{
+		this(random, RandomBackendEnum.JAVA, false, 0);
+	}
+
+	/**
+	 * Creates a generator for a stream split from another generator
+	 */
+	private RandomGenerator(RandomSource random, RandomBackendEnum backend, boolean buffered, long seed)
+	{
+		this.random = random;
+		this.backend = backend;
+		this.buffered = buffered;
+		this.seed = seed;
+		this.isSeedSet = true;
+	}
+
+	/**
+	 * Returns the generator used by the static methods
+	 * @return the shared generator
+	 */
+	public static RandomGenerator getShared()
+	{
+		return shared;
+	}
+	
 	/**
 	 * indicates whether the seed has already been set or not
 	 * @return isSeedSet
 	 */
 	public static boolean isSeedSet() 
 	{
-		return isSeedSet;
+		return shared.isSeedSet;
 	}
 
 	/**
@@ -43,7 +151,7 @@ public class RandomGenerator
 	 */
 	public static long getSeed()
 	{
-		return seed;
+		return shared.seed;
 	}
 
 	/**
@@ -52,9 +160,33 @@ public class RandomGenerator
 	 */
 	public static void setSeed(long seed)
 	{
-		RandomGenerator.seed = seed;
-		random = new Random(seed);
-		isSeedSet = true;
+		shared.reseed(seed);
+	}
+
+	/**
+	 * Sets the type of generator used by the static methods. If a seed has been set, starts again from it.
+	 * @param backend
+	 */
+	public static void setBackend(RandomBackendEnum backend)
+	{
+		shared.backend = backend;
+		if(shared.isSeedSet)
+		{
+			shared.reseed(shared.seed);
+		}
+	}
+
+	/**
+	 * Sets whether the static methods work numbers out a block at a time. If a seed has been set, starts again from it.
+	 * @param buffered
+	 */
+	public static void setBuffered(boolean buffered)
+	{
+		shared.buffered = buffered;
+		if(shared.isSeedSet)
+		{
+			shared.reseed(shared.seed);
+		}
 	}
 
 	/**
@@ -62,16 +194,14 @@ public class RandomGenerator
 	 */
 	public static void setSeedToRandom()
 	{
-		if(isSeedSet)
+		if(shared.isSeedSet)
 		{//this avoids duplicate seeds when called more than once a millisecond
-			RandomGenerator.seed = getRandomLong() ^ System.currentTimeMillis();
+			shared.reseed(shared.nextLong() ^ System.currentTimeMillis());
 		}
 		else
 		{
-			RandomGenerator.seed = System.currentTimeMillis();
+			shared.reseed(System.currentTimeMillis());
 		}
-		random = new Random(seed);
-		isSeedSet = true;
 	}
 
 	/**
@@ -80,14 +210,7 @@ public class RandomGenerator
 	 */
 	public static double getRandomDouble()
 	{
-		try 
-		{
-			return random.nextDouble(); 
-		}
-		catch (NullPointerException e)
-		{
-			throw new SeedNotSetException();
-		}
+		return shared.nextDouble();
 	}
 
 	/**
@@ -97,16 +220,7 @@ public class RandomGenerator
 	 */
 	public static int getRandomInt(int range)
 	{
-		//in nextInt(VALUE) the VALUE is exclusive but we want inclusive values so range+1
-		range++;
-		try 
-		{
-			return random.nextInt(range); 
-		}
-		catch (NullPointerException e)
-		{
-			throw new SeedNotSetException();
-		}
+		return shared.nextInt(range);
 	}
 
 	/**
@@ -115,14 +229,7 @@ public class RandomGenerator
 	 */
 	public static int getRandomInt()
 	{
-		try 
-		{
-			return random.nextInt(); 
-		}
-		catch (NullPointerException e)
-		{
-			throw new SeedNotSetException();
-		}
+		return shared.nextInt();
 	}
 
 	/**
@@ -131,14 +238,7 @@ public class RandomGenerator
 	 */
 	public static long getRandomLong()
 	{
-		try 
-		{
-			return random.nextLong(); 
-		}
-		catch (NullPointerException e)
-		{
-			throw new SeedNotSetException();
-		}
+		return shared.nextLong();
 	}
 
 	/**
@@ -147,14 +247,7 @@ public class RandomGenerator
 	 */
 	public static boolean getRandomBoolean()
 	{
-		try 
-		{
-			return random.nextBoolean();
-		}
-		catch (NullPointerException e)
-		{
-			throw new SeedNotSetException();
-		}
+		return shared.nextBoolean();
 	}
 	
 	/**
@@ -164,6 +257,126 @@ public class RandomGenerator
 	 * @return int An integer between the specified min and max
 	 */
 	public static int getRandomIntRange(int min, int max)
+	{
+		return shared.nextIntRange(min, max);
+	}
+
+	// ************************************************************************************************************
+	// INSTANCE METHODS
+
+	/**
+	 * Restarts this generator's stream from a specific seed
+	 * @param seed
+	 */
+	public void reseed(long seed)
+	{
+		this.seed = seed;
+		random = backend.create(seed, buffered);
+		isSeedSet = true;
+	}
+
+	/**
+	 * Gets the seed this generator was last started from. For a split generator, the seed of the one it was split from.
+	 * @return seed
+	 */
+	public long seed()
+	{
+		return seed;
+	}
+
+	/**
+	 * Gets the type of generator in use
+	 * @return backend
+	 */
+	public RandomBackendEnum getBackend()
+	{
+		return backend;
+	}
+
+	/**
+	 * Whether numbers are worked out a block at a time
+	 * @return buffered
+	 */
+	public boolean isBuffered()
+	{
+		return buffered;
+	}
+
+	/**
+	 * Creates a new generator of the same type and buffering as this one, starting from the given seed
+	 * @param seed
+	 * @return the new generator
+	 */
+	public RandomGenerator withSeed(long seed)
+	{
+		return new RandomGenerator(seed, backend, buffered);
+	}
+
+	/**
+	 * Creates a generator of the same type with its own stream, split from this one. Moves this
+	 * generator on, so splitting again gives a different stream.
+	 * @return the new generator
+	 */
+	public RandomGenerator split()
+	{
+		return new RandomGenerator(random.split(), backend, buffered, seed);
+	}
+
+	/**
+	 * Gets a random number of type double from this generator
+	 * @return double A random double
+	 */
+	public double nextDouble()
+	{
+		return random.nextDouble();
+	}
+
+	/**
+	 * Gets a random int from 0 to range inclusive from this generator
+	 * @param range
+	 * @return int A random int
+	 */
+	public int nextInt(int range)
+	{
+		//in nextInt(VALUE) the VALUE is exclusive but we want inclusive values so range+1
+		range++;
+		return random.nextInt(range);
+	}
+
+	/**
+	 * Gets a random number of type int from this generator
+	 * @return int A random int
+	 */
+	public int nextInt()
+	{
+		return random.nextInt();
+	}
+
+	/**
+	 * Gets a random number of type long from this generator
+	 * @return long A random long
+	 */
+	public long nextLong()
+	{
+		return random.nextLong();
+	}
+
+	/**
+	 * Gets a random boolean value from this generator
+	 * @return boolean A random boolean
+	 */
+	public boolean nextBoolean()
+	{
+		return random.nextBoolean();
+	}
+
+	/**
+	 * Gets a random number of type int from min to max inclusive from this generator
+	 * @param min The smallest number that can be generated
+	 * @param max The largest number that can be generated
+	 * @return int An integer between the specified min and max
+	 */
+	public int nextIntRange(int min, int max)
 	{
 		//in nextInt(VALUE) the VALUE is exclusive but we want inclusive values so max+1
 		max++;
@@ -176,10 +389,28 @@ public class RandomGenerator
 		{
 			throw new IllegalArgumentException("Are you entering a range of zero?");
 		}
-		catch (NullPointerException e)
+	}
+
+	/**
+	 * Gets the number of tries up to and including the first success, where each try succeeds with
+	 * the given probability (a geometric distribution). Takes a single draw from this generator.
+	 * @param probability Chance of each try succeeding
+	 * @return int Number of tries, at least 1. Integer.MAX_VALUE if it would never succeed
+	 */
+	public int nextGeometric(double probability)
+	{
+		if(probability >= 1)
 		{
-			throw new SeedNotSetException();
+			return 1;
 		}
+		if(probability <= 0)
+		{
+			return Integer.MAX_VALUE;
+		}
+
+		double uniform = 1 - nextDouble(); // in (0, 1], so the log is never infinite
+		double tries = Math.floor(Math.log(uniform) / Math.log1p(-probability)) + 1;
+		return (tries >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) tries;
 	}
 	
 	/**
@@ -123,4 +123,104 @@ public class RandomGeneratorTest {
 		}
 		assertTrue(true);
 	}
+
+	/**
+	 * Shows that every backend repeats its sequence for a fixed seed, including split streams,
+	 * and that split streams differ from each other
+	 */
+	@Test
+	public void backendSplitTest()
+	{
+		for (RandomBackendEnum backend : RandomBackendEnum.values())
+		{
+			RandomGenerator masterA = new RandomGenerator(-123, backend);
+			RandomGenerator masterB = new RandomGenerator(-123, backend);
+			RandomGenerator firstA = masterA.split();
+			RandomGenerator secondA = masterA.split();
+			RandomGenerator firstB = masterB.split();
+			RandomGenerator secondB = masterB.split();
+
+			assertEquals(backend, firstA.getBackend());
+			for (int i = 0; i < 100; i++)
+			{
+				long first = firstA.nextLong();
+				long second = secondA.nextLong();
+				assertEquals(first, firstB.nextLong());
+				assertEquals(second, secondB.nextLong());
+				assertNotEquals(first, second);
+				assertEquals(masterA.nextDouble(), masterB.nextDouble(), 0);
+			}
+		}
+	}
+
+	/**
+	 * Shows that every backend keeps doubles and ranged ints in range
+	 */
+	@Test
+	public void backendRangeTest()
+	{
+		for (RandomBackendEnum backend : RandomBackendEnum.values())
+		{
+			RandomGenerator random = new RandomGenerator(42, backend);
+			boolean sawMin = false;
+			boolean sawMax = false;
+			for (int n = 0; n < 10000; n++)
+			{
+				double d = random.nextDouble();
+				assertTrue(d >= 0 && d < 1);
+
+				int i = random.nextIntRange(20, 40);
+				assertTrue(i >= 20 && i <= 40);
+				sawMin |= (i == 20);
+				sawMax |= (i == 40);
+			}
+			assertTrue(sawMin && sawMax);
+		}
+	}
+
+	/**
+	 * Shows that a buffered generator gives exactly the same numbers in the same order as an unbuffered one,
+	 * whatever mix of calls is made, across refills of the buffer and after splitting part way through
+	 */
+	@Test
+	public void bufferedMatchesTest()
+	{
+		for (RandomBackendEnum backend : RandomBackendEnum.values())
+		{
+			RandomGenerator plain = new RandomGenerator(99, backend);
+			RandomGenerator buffered = new RandomGenerator(99, backend, true);
+			for (int n = 0; n < 5000; n++)
+			{
+				assertEquals(plain.nextDouble(), buffered.nextDouble(), 0);
+				assertEquals(plain.nextIntRange(1, 20), buffered.nextIntRange(1, 20));
+				assertEquals(plain.nextInt(15), buffered.nextInt(15));
+				assertEquals(plain.nextGeometric(0.01), buffered.nextGeometric(0.01));
+				if (n % 7 == 0)
+				{
+					assertEquals(plain.nextLong(), buffered.nextLong());
+					assertEquals(plain.nextInt(), buffered.nextInt());
+					assertEquals(plain.nextBoolean(), buffered.nextBoolean());
+				}
+				if (n % 1000 == 500)
+				{
+					RandomGenerator plainSplit = plain.split();
+					RandomGenerator bufferedSplit = buffered.split();
+					assertTrue(bufferedSplit.isBuffered());
+					for (int i = 0; i < 100; i++)
+					{
+						assertEquals(plainSplit.nextDouble(), bufferedSplit.nextDouble(), 0);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shows that a generator which hasn't been seeded refuses to give out numbers
+	 */
+	@Test(expected = RandomGenerator.SeedNotSetException.class)
+	public void seedNotSetTest()
+	{
+		new RandomGenerator().nextDouble();
+	}
 }
@@ -0,0 +1,46 @@
+package utils;
+
+/**
+ * A stream of random numbers behind a RandomGenerator. Implementations don't need to be thread safe,
+ * as each simulation run has its own streams.
+ * 
+ * @version 17/10/2026
+ */
+public interface RandomSource
+{
+	/**
+	 * @return a random double from 0 (inclusive) to 1 (exclusive)
+	 */
+	public double nextDouble();
+
+	/**
+	 * @param bound Upper bound (exclusive). Must be positive.
+	 * @return a random int from 0 (inclusive) to bound (exclusive)
+	 * @throws IllegalArgumentException if bound is not positive
+	 */
+	public int nextInt(int bound);
+
+	/**
+	 * @return a random int
+	 */
+	public int nextInt();
+
+	/**
+	 * @return a random long
+	 */
+	public long nextLong();
+
+	/**
+	 * @return a random boolean
+	 */
+	public boolean nextBoolean();
+
+	/**
+	 * Creates a new source whose numbers don't overlap with (or depend on) the numbers this one goes
+	 * on to produce. Moves this source on. Splitting the same sources in the same order always gives
+	 * the same streams, so runs split from one master seed can be repeated.
+	 * 
+	 * @return the new source
+	 */
+	public RandomSource split();
+}
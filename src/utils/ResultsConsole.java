@@ -0,0 +1,236 @@
+package utils;
+
+import java.awt.FontMetrics;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.Timer;
+
+/**
+ * Read only view of output lines, for showing results as a simulation runs. Only the most recent lines
+ * are kept, in a ring buffer, so memory stays the same however long the output gets.
+ * 
+ * Output can be appended from any thread. It is collected up and added to the view on the event
+ * dispatch thread a fixed number of times a second, however often it arrives. Every row has the same
+ * height, so only the rows on screen are ever drawn or measured.
+ * 
+ * @version 17/10/2026
+ */
+public class ResultsConsole extends JList<String>
+{
+	/**
+	 * serialVersionUID
+	 */
+	private static final long serialVersionUID = -3516284137052265873L;
+
+	/**
+	 * time between updates of the view, about 30 a second
+	 */
+	private static final int FRAME_MILLIS = 33;
+
+	/**
+	 * lines being shown
+	 */
+	private final LineBuffer lines;
+
+	/**
+	 * output appended since the last update
+	 */
+	private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<String>();
+
+	/**
+	 * start of a line which hasn't been ended yet. Only used on the event dispatch thread.
+	 */
+	private final StringBuilder partialLine = new StringBuilder();
+
+	/**
+	 * width of the widest line shown, in pixels
+	 */
+	private int widestLine = 0;
+
+	/**
+	 * @param capacity Most lines to keep. Older lines are dropped to make room.
+	 */
+	public ResultsConsole(int capacity)
+	{
+		super(new LineBuffer(capacity));
+		lines = (LineBuffer) getModel();
+
+		new Timer(FRAME_MILLIS, new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				showPending();
+			}
+		}).start();
+	}
+
+	@Override
+	public void updateUI()
+	{
+		super.updateUI();
+		// a fixed row height means the list never has to measure every row
+		setFixedCellHeight(getFontMetrics(getFont()).getHeight());
+	}
+
+	/**
+	 * Adds output to the end of the view. Can be called from any thread. A line only
+	 * appears once it has been ended with \n.
+	 * @param data
+	 */
+	public void append(String data)
+	{
+		pending.offer(data);
+	}
+
+	/**
+	 * Replaces everything shown with the given text. Must be called on the event dispatch thread.
+	 * @param text
+	 */
+	public void setText(String text)
+	{
+		pending.clear();
+		partialLine.setLength(0);
+		lines.clear();
+		widestLine = 0;
+		setFixedCellWidth(-1);
+
+		if(!text.isEmpty())
+		{
+			append(text.endsWith("\n") ? text : text + "\n");
+			showPending();
+		}
+	}
+
+	/**
+	 * Moves the output appended since the last update into the view
+	 */
+	private void showPending()
+	{
+		if(pending.isEmpty())
+		{
+			return;
+		}
+
+		boolean atBottom = (lines.getSize() == 0) || (getLastVisibleIndex() >= lines.getSize() - 1);
+
+		ArrayList<String> newLines = new ArrayList<String>();
+		String data;
+		while((data = pending.poll()) != null)
+		{
+			int start = 0;
+			int end;
+			while((end = data.indexOf('\n', start)) >= 0)
+			{
+				partialLine.append(data, start, end);
+				newLines.add(partialLine.toString());
+				partialLine.setLength(0);
+				start = end + 1;
+			}
+			partialLine.append(data, start, data.length());
+		}
+
+		if(newLines.isEmpty())
+		{
+			return;
+		}
+		if(newLines.size() > lines.getCapacity())
+		{
+			newLines = new ArrayList<String>(newLines.subList(newLines.size() - lines.getCapacity(), newLines.size()));
+		}
+
+		// rows are as wide as the widest line, so the list doesn't have to measure every row to find out
+		FontMetrics metrics = getFontMetrics(getFont());
+		int widest = widestLine;
+		for(String line : newLines)
+		{
+			widest = Math.max(widest, metrics.stringWidth(line));
+		}
+		if(widest != widestLine)
+		{
+			widestLine = widest;
+			setFixedCellWidth(widest + 4);
+		}
+
+		lines.addAll(newLines);
+		if(atBottom)
+		{
+			ensureIndexIsVisible(lines.getSize() - 1); // keep following the output, unless scrolled up to read it
+		}
+	}
+
+	/**
+	 * Ring buffer of lines, which drops the oldest lines when full
+	 */
+	private static class LineBuffer extends AbstractListModel<String>
+	{
+		private static final long serialVersionUID = 2390871725370563718L;
+
+		private final String[] lines;
+		private int first; // index in the array of the oldest line
+		private int size;
+
+		LineBuffer(int capacity)
+		{
+			lines = new String[capacity];
+		}
+
+		int getCapacity()
+		{
+			return lines.length;
+		}
+
+		@Override
+		public int getSize()
+		{
+			return size;
+		}
+
+		@Override
+		public String getElementAt(int index)
+		{
+			return lines[(first + index) % lines.length];
+		}
+
+		/**
+		 * Adds lines to the end, dropping the oldest ones to make room
+		 * @param added No more lines than the capacity
+		 */
+		void addAll(List<String> added)
+		{
+			int removed = Math.max(0, size + added.size() - lines.length);
+			if(removed > 0)
+			{
+				first = (first + removed) % lines.length;
+				size -= removed;
+				fireIntervalRemoved(this, 0, removed - 1);
+			}
+
+			for(String line : added)
+			{
+				lines[(first + size) % lines.length] = line;
+				size++;
+			}
+			fireIntervalAdded(this, size - added.size(), size - 1);
+		}
+
+		void clear()
+		{
+			int oldSize = size;
+			Arrays.fill(lines, null);
+			first = 0;
+			size = 0;
+			if(oldSize > 0)
+			{
+				fireIntervalRemoved(this, 0, oldSize - 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package utils;
+
+import static org.junit.Assert.*;
+
+import javax.swing.ListModel;
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+/**
+ * Tests for ResultsConsole
+ * 
+ * @version 17/10/2026
+ */
+public class ResultsConsoleTest {
+
+	/**
+	 * Waits until the console has had a chance to show what was appended
+	 */
+	private static void waitForUpdate() throws Exception {
+		Thread.sleep(200);
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {}
+		});
+	}
+
+	/**
+	 * Shows that output split across appends is joined into lines, and only the latest lines are kept
+	 */
+	@Test
+	public void keepsLatestLines() throws Exception {
+		final ResultsConsole console = new ResultsConsole(3);
+		console.append("a\nb\n");
+		console.append("c\nd");
+		console.append("\ne\nunfinished");
+		waitForUpdate();
+
+		ListModel<String> lines = console.getModel();
+		assertEquals(3, lines.getSize());
+		assertEquals("c", lines.getElementAt(0));
+		assertEquals("d", lines.getElementAt(1));
+		assertEquals("e", lines.getElementAt(2));
+
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				console.setText("start");
+			}
+		});
+		assertEquals(1, lines.getSize());
+		assertEquals("start", lines.getElementAt(0));
+	}
+}
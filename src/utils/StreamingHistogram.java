@@ -0,0 +1,175 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative int values, such as waiting times in ticks, which gives percentiles,
+ * the max, and the mean and variance (by Welford's method) without keeping the values themselves.
+ * 
+ * Values below 256 each have their own bucket. Above that, every doubling of value is split into 128
+ * buckets, so a percentile is never out by more than 1%. The buckets are only allocated as far as the
+ * largest value seen, and never more than a few thousand, so memory doesn't grow with the number
+ * of values. Recording a value takes the same time however many have been recorded.
+ * 
+ * @version 17/10/2026
+ */
+public class StreamingHistogram
+{
+	private static final int EXACT_BITS = 8; // values below 2^8 are kept exactly
+	private static final int SUB_BITS = 7; // 2^7 buckets for each doubling above that
+	private static final int EXACT_LIMIT = 1 << EXACT_BITS;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int MAX_BUCKETS = bucketOf(Integer.MAX_VALUE) + 1;
+
+	private long[] counts = new long[0];
+	private long count = 0;
+	private int max = 0;
+	private double mean = 0;
+	private double sumSquaredDifferences = 0; // Welford's M2
+
+	/**
+	 * Adds a value
+	 * @param value At least 0
+	 */
+	public void record(int value)
+	{
+		if(value < 0)
+		{
+			throw new IllegalArgumentException("Value can't be negative: " + value);
+		}
+
+		int bucket = bucketOf(value);
+		if(bucket >= counts.length)
+		{
+			counts = Arrays.copyOf(counts, Math.min(Math.max(bucket + 1, counts.length * 2), MAX_BUCKETS));
+		}
+		counts[bucket]++;
+
+		count++;
+		max = Math.max(max, value);
+		double difference = value - mean;
+		mean += difference / count;
+		sumSquaredDifferences += difference * (value - mean);
+	}
+
+	/**
+	 * Adds all the values of another histogram to this one, as if they had been recorded here
+	 * @param other
+	 */
+	public void merge(StreamingHistogram other)
+	{
+		if(other.count == 0)
+		{
+			return;
+		}
+		if(other.counts.length > counts.length)
+		{
+			counts = Arrays.copyOf(counts, other.counts.length);
+		}
+		for(int i = 0; i < other.counts.length; i++)
+		{
+			counts[i] += other.counts[i];
+		}
+
+		// Chan et al.'s parallel form of Welford's method
+		long total = count + other.count;
+		double difference = other.mean - mean;
+		sumSquaredDifferences += other.sumSquaredDifferences + difference * difference * ((double) count * other.count / total);
+		mean += difference * other.count / total;
+		count = total;
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * @return number of values recorded
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * @return largest value recorded, or 0 if none
+	 */
+	public int getMax()
+	{
+		return max;
+	}
+
+	/**
+	 * @return mean of the values recorded, or 0 if none
+	 */
+	public double getMean()
+	{
+		return mean;
+	}
+
+	/**
+	 * @return sample variance of the values recorded, or 0 if fewer than two
+	 */
+	public double getVariance()
+	{
+		return (count > 1) ? sumSquaredDifferences / (count - 1) : 0;
+	}
+
+	/**
+	 * Gets the value which the given fraction of values are less than or equal to. Exact below 256, and within 1% above.
+	 * @param fraction From 0 to 1, e.g. 0.99 for the 99th percentile
+	 * @return the percentile, or 0 if no values have been recorded
+	 */
+	public int getPercentile(double fraction)
+	{
+		if(count == 0)
+		{
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(fraction * count)); // number of values at or below the answer
+		long seen = 0;
+		for(int bucket = 0; bucket < counts.length; bucket++)
+		{
+			seen += counts[bucket];
+			if(seen >= rank)
+			{
+				return Math.min(lowestValueOf(bucket), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @param value
+	 * @return index of the bucket holding the value
+	 */
+	private static int bucketOf(int value)
+	{
+		if(value < EXACT_LIMIT)
+		{
+			return value;
+		}
+		int shift = (31 - Integer.numberOfLeadingZeros(value)) - SUB_BITS; // at least 1
+		return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * @param bucket
+	 * @return smallest value which goes in the bucket
+	 */
+	private static int lowestValueOf(int bucket)
+	{
+		if(bucket < EXACT_LIMIT)
+		{
+			return bucket;
+		}
+		int shift = (bucket - EXACT_LIMIT) / SUB_BUCKETS + 1;
+		int subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		return subBucket << shift;
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("n=%d, mean %.1f, sd %.1f, p50 %d, p90 %d, p99 %d, max %d",
+				count, mean, Math.sqrt(getVariance()), getPercentile(0.5), getPercentile(0.9), getPercentile(0.99), max);
+	}
+}
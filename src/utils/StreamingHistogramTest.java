@@ -0,0 +1,112 @@
+package utils;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * To validate the percentiles, mean and variance of StreamingHistogram
+ *
+ */
+public class StreamingHistogramTest {
+
+	/**
+	 * Values below 256 are kept exactly, so percentiles match a sorted array
+	 */
+	@Test
+	public void exactPercentilesTest()
+	{
+		Random random = new Random(42);
+		int values[] = new int[1000];
+		StreamingHistogram histogram = new StreamingHistogram();
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = random.nextInt(256);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		assertEquals(values.length, histogram.getCount());
+		assertEquals(values[499], histogram.getPercentile(0.5));
+		assertEquals(values[899], histogram.getPercentile(0.9));
+		assertEquals(values[989], histogram.getPercentile(0.99));
+		assertEquals(values[999], histogram.getMax());
+	}
+
+	/**
+	 * Larger values are placed within 1% of their true value
+	 */
+	@Test
+	public void largePercentilesTest()
+	{
+		Random random = new Random(7);
+		int values[] = new int[1000];
+		StreamingHistogram histogram = new StreamingHistogram();
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = random.nextInt(1000000);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		int p90 = histogram.getPercentile(0.9);
+		assertTrue(p90 <= values[899]);
+		assertTrue(p90 >= values[899] * 0.99);
+		assertEquals(values[999], histogram.getMax());
+	}
+
+	/**
+	 * Mean and variance match the usual two pass calculation
+	 */
+	@Test
+	public void meanAndVarianceTest()
+	{
+		int values[] = {2, 4, 4, 4, 5, 5, 7, 9};
+		StreamingHistogram histogram = new StreamingHistogram();
+		for (int value : values)
+		{
+			histogram.record(value);
+		}
+
+		assertEquals(5.0, histogram.getMean(), 1e-9);
+		assertEquals(32.0 / 7, histogram.getVariance(), 1e-9);
+	}
+
+	/**
+	 * Merging two histograms gives the same result as recording every value in one
+	 */
+	@Test
+	public void mergeTest()
+	{
+		Random random = new Random(3);
+		StreamingHistogram first = new StreamingHistogram();
+		StreamingHistogram second = new StreamingHistogram();
+		StreamingHistogram combined = new StreamingHistogram();
+		for (int i = 0; i < 500; i++)
+		{
+			int value = random.nextInt(5000);
+			(i % 3 == 0 ? first : second).record(value);
+			combined.record(value);
+		}
+		first.merge(second);
+
+		assertEquals(combined.getCount(), first.getCount());
+		assertEquals(combined.getMax(), first.getMax());
+		assertEquals(combined.getMean(), first.getMean(), 1e-9);
+		assertEquals(combined.getVariance(), first.getVariance(), 1e-6);
+		assertEquals(combined.getPercentile(0.5), first.getPercentile(0.5));
+		assertEquals(combined.getPercentile(0.99), first.getPercentile(0.99));
+	}
+
+	/**
+	 * Waiting times can't be negative
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeValueTest()
+	{
+		new StreamingHistogram().record(-1);
+	}
+}
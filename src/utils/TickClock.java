@@ -0,0 +1,41 @@
+package utils;
+
+/**
+ * Counts the ticks that have passed for something which waits, such as a queue. Things waiting
+ * on the clock remember the tick they started at and work out how long they've waited when asked,
+ * so time can pass for all of them at once.
+ * 
+ * The tick is an int, and the queues compare fuel deadlines (tick plus fuel) with plain int
+ * comparisons, so a run mustn't go past MAX_TICKS.
+ * 
+ * @version 17/10/2026
+ */
+public class TickClock {
+	/**
+	 * Most ticks one run can last. Leaves room above it for fuel deadlines, which are below
+	 * Integer.MAX_VALUE, kept for aircraft which can't run out of fuel.
+	 */
+	public static final int MAX_TICKS = Integer.MAX_VALUE - (1 << 20);
+
+	private int tick; // number of ticks that have passed
+
+	public TickClock() {
+		tick = 0;
+	}
+
+	/**
+	 * Returns the number of ticks that have passed
+	 * @return tick
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	/**
+	 * Lets a number of ticks pass
+	 * @param ticks
+	 */
+	public void advance(int ticks) {
+		tick += ticks;
+	}
+}
@@ -1,7 +1,6 @@
 package utils;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /**
  * Collection that holds a number of objects for a set period of time. The time is specified in the constructor.
@@ -9,12 +8,19 @@ import java.util.Iterator;
  * exceeds or equals the waiting time, the objects can be returned by using pollFinished(). 
  * To look at the objects WITHOUT removing them, use peekFinished().
  * 
+ * Stored as a timing wheel: one slot per tick, holding the objects which finish on that tick. Each tick
+ * the slot coming due is moved over to the finished objects, so a tick costs the same however many
+ * objects are waiting, and nothing is created unless something finishes.
+ * 
  * @author Alex Luckett
- * @version 10/04/2014
+ * @version 17/10/2026
  */
 public class WaitingList<T> {
-	private ArrayList<WaitingItem> waitingItems;
+	private ArrayList<ArrayList<T>> slots; // objects by the tick they finish on, going round as ticks are run
+	private ArrayList<T> finishedObjects; // objects which have finished, but not been polled yet
 	private final int timeToWait;
+	private int currentSlot; // slot which came due on the last tick
+	private int waitingCount; // number of objects in the slots
 	
 	/**
 	 * Constructs a new WaitingList. 
@@ -22,8 +28,14 @@ public class WaitingList<T> {
 	 * @param timeToWait The time to wait before returning objects
 	 */
 	public WaitingList(int timeToWait) {
-		waitingItems = new ArrayList<WaitingItem>();
 		this.timeToWait = timeToWait;
+		slots = new ArrayList<ArrayList<T>>();
+		for(int i = 0; i < Math.max(1, timeToWait); i++) {
+			slots.add(new ArrayList<T>());
+		}
+		finishedObjects = new ArrayList<T>();
+		currentSlot = 0;
+		waitingCount = 0;
 	}
 	
 	/**
@@ -31,7 +43,12 @@ public class WaitingList<T> {
 	 * @param object The object being added to the collection
 	 */
 	public void add(T object) {
-		waitingItems.add(new WaitingItem(object)); // create a new waiting item from the parameter, add to arraylist
+		if(timeToWait <= 0) {
+			finishedObjects.add(object); // nothing to wait for
+		} else {
+			slots.get(slotIndex(timeToWait)).add(object);
+			waitingCount++;
+		}
 	}
 	
 	public void remove(T object) { } // do not need to remove in this collection
@@ -40,27 +57,90 @@ public class WaitingList<T> {
 	 * Runs WaitingList for one tick. Increments the waiting time of each object.
 	 */
 	public void oneTick() {
-		for (WaitingItem currentItem : waitingItems) {
-			currentItem.incrementWaitTime();
+		oneTick(1);
+	}
+	
+	/**
+	 * Runs WaitingList for a number of ticks at once.
+	 * @param ticks Number of ticks to add to the waiting time of each object
+	 */
+	public void oneTick(int ticks) {
+		// once every slot has come due, the rest of the ticks can't finish anything
+		int ticksToCheck = Math.min(ticks, slots.size());
+		for(int i = 1; i <= ticksToCheck && waitingCount > 0; i++) {
+			finishSlot(slotIndex(i));
 		}
+		currentSlot = slotIndex(ticks % slots.size());
 	}
 	
 	/**
-	 * Returns all the finished objects (ones that have been waiting for timeToWait)
-	 * does NOT remove them from the WaitingList
+	 * Moves the objects in a slot which has come due over to the finished objects
+	 * @param index Index of the slot
+	 */
+	private void finishSlot(int index) {
+		ArrayList<T> slot = slots.get(index);
+		if(slot.isEmpty()) {
+			return;
+		}
+
+		waitingCount -= slot.size();
+		if(finishedObjects.isEmpty()) {
+			// swap the lists over rather than copying
+			slots.set(index, finishedObjects);
+			finishedObjects = slot;
+		} else {
+			finishedObjects.addAll(slot);
+			slot.clear();
+		}
+	}
+	
+	/**
+	 * Returns the index of the slot for objects finishing a number of ticks from now
+	 * @param ticks Ticks from now, no more than the number of slots
+	 * @return slot index
+	 */
+	private int slotIndex(int ticks) {
+		return (currentSlot + ticks) % slots.size();
+	}
+	
+	/**
+	 * Returns the number of ticks until the next object finishes waiting. 0 if an
+	 * object has already finished, Integer.MAX_VALUE if the collection is empty.
 	 * 
-	 * @return ArrayList<T> containing the finished objects
+	 * @return ticks until the next object finishes
 	 */
-	public ArrayList<T> peek() {
-		ArrayList<T> finishedObjects = new ArrayList<T>();
+	public int ticksUntilNextFinished() {
+		if(!finishedObjects.isEmpty()) {
+			return 0;
+		}
 		
-		for(WaitingItem currentItem : waitingItems) {
-			if(currentItem.getWaitTime() >= timeToWait) {
-				finishedObjects.add((T) currentItem.getObject());
+		if(waitingCount > 0) {
+			for(int ticks = 1; ticks <= slots.size(); ticks++) {
+				if(!slots.get(slotIndex(ticks)).isEmpty()) {
+					return ticks;
+				}
 			}
 		}
 		
-		return finishedObjects;
+		return Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * Returns true if any objects have finished waiting
+	 * @return whether poll() would return anything
+	 */
+	public boolean hasFinished() {
+		return !finishedObjects.isEmpty();
+	}
+	
+	/**
+	 * Returns all the finished objects (ones that have been waiting for timeToWait)
+	 * does NOT remove them from the WaitingList
+	 * 
+	 * @return ArrayList<T> containing the finished objects
+	 */
+	public ArrayList<T> peek() {
+		return new ArrayList<T>(finishedObjects);
 	}
 	
 	/**
@@ -70,22 +150,13 @@ public class WaitingList<T> {
 	 * @return ArrayList<T> containing the finished objects
 	 */
 	public ArrayList<T> poll() {
-		ArrayList<T> finishedObjects = peek();
-		
-		/*
-		 * Iterate over the items in the waiting collection.
-		 * If object is contained within the original, remove from collection
-		 */
-		Iterator<WaitingItem> iter = waitingItems.iterator();
-		while (iter.hasNext()) {
-			WaitingItem currentWaitItem = iter.next();
-			Object currentObject = currentWaitItem.getObject();
-		    if (finishedObjects.contains(currentObject)) {
-		        iter.remove();
-		    }
+		if(finishedObjects.isEmpty()) {
+			return new ArrayList<T>();
 		}
 		
-		return finishedObjects;
+		ArrayList<T> polled = finishedObjects; // hand the list over, rather than copying it
+		finishedObjects = new ArrayList<T>();
+		return polled;
 	}
 
 	/**
@@ -93,7 +164,7 @@ public class WaitingList<T> {
 	 * @return size of the collection
 	 */
 	public int size() { 
-		return waitingItems.size();
+		return waitingCount + finishedObjects.size();
 	}
 	
 	/**
@@ -111,42 +182,14 @@ public class WaitingList<T> {
 	 * @return ArrayList<T> contains the current waiting items
 	 */
 	public ArrayList<T> peekWaiting() {
-		ArrayList<T> finishedObjects = new ArrayList<T>();
+		ArrayList<T> waitingObjects = new ArrayList<T>(size());
+		waitingObjects.addAll(finishedObjects);
 		
-		for(WaitingItem currentItem : waitingItems) {
-			finishedObjects.add((T) currentItem.getObject());
+		// oldest first, in the order they were added
+		for(int ticks = 1; ticks <= slots.size() && waitingObjects.size() < size(); ticks++) {
+			waitingObjects.addAll(slots.get(slotIndex(ticks)));
 		}
 		
-		return finishedObjects;
-	}
-	
-	
-	/**
-	 * An item to be used within the WaitingList collection. Intended use: stores an object
-	 * and the amount of time it has been waiting in a certain place.
-	 * 
-	 * @author Alex Luckett
-	 * @version 08/04/2014
-	 */
-	private class WaitingItem {
-		private T object; // object to be contained within the WaitingItem
-		private int waitTime; // amount of time it has been waiting in the WaitingList
-
-		public WaitingItem(T object) {
-			this.object = object;
-			this.waitTime = 0;
-		}
-
-		public void incrementWaitTime() {
-			waitTime++;
-		}
-
-		public T getObject() {
-			return object;
-		}
-
-		public int getWaitTime() {
-			return waitTime;
-		}
+		return waitingObjects;
 	}
-}
\ No newline at end of file
+}
@@ -78,4 +78,34 @@ public class WaitingListTest {
 		assertTrue(pullFinished.size() == 4); // make sure that all aircraft that have been waiting 50 ticks are returned
 	}
 
+	/**
+	 * Run several ticks at once, including more ticks than the waiting time. Objects should
+	 * finish at the same point as running the ticks one at a time, and come out in the order added.
+	 */
+	@Test
+	public void testSkipTicks() {
+		WaitingList<Aircraft> waitingAircraft = new WaitingList<Aircraft>(10);
+		assertEquals(Integer.MAX_VALUE, waitingAircraft.ticksUntilNextFinished());
+
+		Aircraft first = new CommercialAircraft();
+		waitingAircraft.add(first);
+		waitingAircraft.oneTick(4);
+		Aircraft second = new Glider();
+		waitingAircraft.add(second);
+
+		assertEquals(6, waitingAircraft.ticksUntilNextFinished());
+		waitingAircraft.oneTick(5);
+		assertFalse(waitingAircraft.hasFinished());
+		waitingAircraft.oneTick();
+		assertTrue(waitingAircraft.hasFinished());
+		assertEquals(0, waitingAircraft.ticksUntilNextFinished());
+
+		waitingAircraft.oneTick(25); // more than a full turn of the wheel
+		ArrayList<Aircraft> pullFinished = waitingAircraft.poll();
+		assertEquals(2, pullFinished.size());
+		assertSame(first, pullFinished.get(0));
+		assertSame(second, pullFinished.get(1));
+		assertEquals(0, waitingAircraft.size());
+	}
+
 }
@@ -0,0 +1,183 @@
+package utils;
+
+/**
+ * RandomSource using the xoroshiro128+ generator (Blackman and Vigna). Two longs of state, a handful
+ * of shifts and xors per number, and no locking. split() hands the current state to the new source
+ * and jumps this one 2^64 numbers ahead, so split streams never overlap.
+ *
+ * Can work numbers out a block at a time into an array, which gives exactly the same numbers in the same order.
+ * 
+ * @version 17/10/2026
+ */
+class XoroshiroRandomSource implements RandomSource
+{
+	private static final long[] JUMP = { 0xdf900294d8f554a5L, 0x170865df4b3201fcL }; // 2^64 numbers ahead
+	private static final double DOUBLE_UNIT = 0x1.0p-53; // 1 / 2^53
+
+	private long s0;
+	private long s1;
+
+	private final long[] buffer; // upcoming numbers, or null if not buffering
+	private int filled; // numbers in the buffer
+	private int cursor; // next number to use from the buffer
+	private long bufferStart0; // state the buffer was filled from
+	private long bufferStart1;
+
+	XoroshiroRandomSource(long seed)
+	{
+		this(seed, false);
+	}
+
+	/**
+	 * @param seed
+	 * @param buffered True to work out numbers a block at a time
+	 */
+	XoroshiroRandomSource(long seed, boolean buffered)
+	{
+		buffer = buffered ? new long[1024] : null;
+
+		// spread the seed over both longs with splitmix64, so that similar seeds give unrelated streams
+		s0 = mix(seed += 0x9e3779b97f4a7c15L);
+		s1 = mix(seed + 0x9e3779b97f4a7c15L);
+	}
+
+	private XoroshiroRandomSource(long s0, long s1, boolean buffered)
+	{
+		buffer = buffered ? new long[1024] : null;
+		this.s0 = s0;
+		this.s1 = s1;
+	}
+
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public long nextLong()
+	{
+		if(buffer == null)
+		{
+			return step();
+		}
+
+		if(cursor == filled)
+		{
+			bufferStart0 = s0;
+			bufferStart1 = s1;
+			for(int i = 0; i < buffer.length; i++)
+			{
+				buffer[i] = step();
+			}
+			filled = buffer.length;
+			cursor = 0;
+		}
+		return buffer[cursor++];
+	}
+
+	/**
+	 * Moves the state on by one
+	 * @return the next number
+	 */
+	private long step()
+	{
+		long a = s0;
+		long b = s1;
+		long result = a + b;
+
+		b ^= a;
+		s0 = Long.rotateLeft(a, 24) ^ b ^ (b << 16);
+		s1 = Long.rotateLeft(b, 37);
+
+		return result;
+	}
+
+	@Override
+	public double nextDouble()
+	{
+		return (nextLong() >>> 11) * DOUBLE_UNIT; // top 53 bits, as the lowest bits are the weakest
+	}
+
+	@Override
+	public int nextInt()
+	{
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public int nextInt(int bound)
+	{
+		if(bound <= 0)
+		{
+			throw new IllegalArgumentException("bound must be positive");
+		}
+
+		// same method as java.util.Random, rejecting the values which would make some results more likely
+		int bits = (int) (nextLong() >>> 33);
+		int max = bound - 1;
+		if((bound & max) == 0)
+		{
+			return (int) ((bound * (long) bits) >> 31); // power of two
+		}
+
+		int result = bits % bound;
+		while(bits - result + max < 0)
+		{
+			bits = (int) (nextLong() >>> 33);
+			result = bits % bound;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean nextBoolean()
+	{
+		return nextLong() < 0;
+	}
+
+	@Override
+	public RandomSource split()
+	{
+		if(filled > 0)
+		{
+			// the state has run ahead of the numbers handed out, so go back to where the buffer was used up to
+			s0 = bufferStart0;
+			s1 = bufferStart1;
+			for(int i = 0; i < cursor; i++)
+			{
+				step();
+			}
+			filled = 0;
+			cursor = 0;
+		}
+
+		RandomSource split = new XoroshiroRandomSource(s0, s1, buffer != null);
+		jump();
+		return split;
+	}
+
+	/**
+	 * Moves this source 2^64 numbers ahead
+	 */
+	private void jump()
+	{
+		long t0 = 0;
+		long t1 = 0;
+		for(long jump : JUMP)
+		{
+			for(int bit = 0; bit < 64; bit++)
+			{
+				if((jump & (1L << bit)) != 0)
+				{
+					t0 ^= s0;
+					t1 ^= s1;
+				}
+				step();
+			}
+		}
+		s0 = t0;
+		s1 = t1;
+	}
+}